@@ -0,0 +1,23 @@
+-- Date indexes for the nightly archive job (MySQL 8+).
+--
+-- The job picks the rows behind the horizon oldest date first and claims them with
+-- FOR UPDATE SKIP LOCKED; without these indexes each batch scans and locks the whole table.
+-- Each step checks information_schema first, so the script can be run again.
+
+SET @add_index := IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                            WHERE table_schema = DATABASE() AND table_name = 'appointments'
+                              AND index_name = 'idx_appointments_data'),
+                 'DO 0',
+                 'CREATE INDEX idx_appointments_data ON appointments (data)');
+PREPARE stmt FROM @add_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_index := IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                            WHERE table_schema = DATABASE() AND table_name = 'waiting_list'
+                              AND index_name = 'idx_waiting_list_data_richiesta'),
+                 'DO 0',
+                 'CREATE INDEX idx_waiting_list_data_richiesta ON waiting_list (data_richiesta)');
+PREPARE stmt FROM @add_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
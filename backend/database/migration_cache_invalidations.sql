@@ -0,0 +1,16 @@
+-- Table of the JDBC cache invalidation transport (MySQL 8+).
+--
+-- Run once before switching a deployment to app.invalidation.transport=jdbc. The application does
+-- not create it, so the runtime database user needs no DDL rights.
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  origin VARCHAR(64) NOT NULL,
+  catalog VARCHAR(32),
+  appointment_id BIGINT,
+  barber_id BIGINT,
+  data DATE,
+  created_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (id),
+  INDEX idx_cache_invalidations_created_at (created_at)
+);
@@ -0,0 +1,15 @@
+-- Table of the JDBC idempotency store (MySQL 8+).
+--
+-- Run once before switching a deployment to app.idempotency.store=jdbc. The application does not
+-- create it, so the runtime database user needs no DDL rights.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  idempotency_key VARCHAR(255) NOT NULL,
+  fingerprint VARCHAR(64),
+  status INT,
+  content_type VARCHAR(100),
+  body BLOB,
+  reserved_at TIMESTAMP NOT NULL,
+  PRIMARY KEY (idempotency_key),
+  INDEX idx_idempotency_keys_reserved_at (reserved_at)
+);
@@ -0,0 +1,99 @@
+-- Migration to multi-shop tenancy (MySQL 8+).
+--
+-- Run once, before starting the first multi-shop version, on each existing single-shop schema.
+-- It creates the shops table with the default shop (id 1) and moves barbers, services and the
+-- opening hours into it. Appointments, waiting-list entries and availability follow their barber.
+--
+-- To merge several single-shop schemas into one instance, run this on the target schema, insert
+-- the other shops, then copy their rows with the new shop_id (ids of the copied rows change, so
+-- the foreign keys of appointments and barber_services must be remapped in the copy).
+
+SET NAMES utf8mb4;
+
+-- MySQL commits every DDL statement on its own, so the steps cannot run as one transaction. Each
+-- one checks information_schema first instead, and the script can be run again after a failure.
+
+CREATE TABLE IF NOT EXISTS shops (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  nome VARCHAR(255),
+  indirizzo VARCHAR(255),
+  is_active BIT(1),
+  PRIMARY KEY (id)
+);
+
+INSERT INTO shops (id, nome, indirizzo, is_active) VALUES (1, 'Sede principale', NULL, 1)
+  ON DUPLICATE KEY UPDATE id = id;
+
+SET @add_column := IF(EXISTS(SELECT 1 FROM information_schema.columns
+                             WHERE table_schema = DATABASE() AND table_name = 'barbers' AND column_name = 'shop_id'),
+                  'DO 0',
+                  'ALTER TABLE barbers ADD COLUMN shop_id BIGINT NOT NULL DEFAULT 1');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_column := IF(EXISTS(SELECT 1 FROM information_schema.columns
+                             WHERE table_schema = DATABASE() AND table_name = 'services' AND column_name = 'shop_id'),
+                  'DO 0',
+                  'ALTER TABLE services ADD COLUMN shop_id BIGINT NOT NULL DEFAULT 1');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_column := IF(EXISTS(SELECT 1 FROM information_schema.columns
+                             WHERE table_schema = DATABASE() AND table_name = 'shop_hours' AND column_name = 'shop_id'),
+                  'DO 0',
+                  'ALTER TABLE shop_hours ADD COLUMN shop_id BIGINT NOT NULL DEFAULT 1');
+PREPARE stmt FROM @add_column;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+
+
+SET @add_key := IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                             WHERE table_schema = DATABASE() AND table_name = 'shop_hours' AND index_name = 'uk_shop_hours_shop_giorno'),
+                  'DO 0',
+                  'ALTER TABLE shop_hours ADD CONSTRAINT uk_shop_hours_shop_giorno UNIQUE (shop_id, giorno)');
+PREPARE stmt FROM @add_key;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_fk := IF(EXISTS(SELECT 1 FROM information_schema.table_constraints
+                             WHERE table_schema = DATABASE() AND table_name = 'barbers' AND constraint_name = 'fk_barbers_shop'),
+                  'DO 0',
+                  'ALTER TABLE barbers ADD CONSTRAINT fk_barbers_shop FOREIGN KEY (shop_id) REFERENCES shops (id)');
+PREPARE stmt FROM @add_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_fk := IF(EXISTS(SELECT 1 FROM information_schema.table_constraints
+                             WHERE table_schema = DATABASE() AND table_name = 'services' AND constraint_name = 'fk_services_shop'),
+                  'DO 0',
+                  'ALTER TABLE services ADD CONSTRAINT fk_services_shop FOREIGN KEY (shop_id) REFERENCES shops (id)');
+PREPARE stmt FROM @add_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_fk := IF(EXISTS(SELECT 1 FROM information_schema.table_constraints
+                             WHERE table_schema = DATABASE() AND table_name = 'shop_hours' AND constraint_name = 'fk_shop_hours_shop'),
+                  'DO 0',
+                  'ALTER TABLE shop_hours ADD CONSTRAINT fk_shop_hours_shop FOREIGN KEY (shop_id) REFERENCES shops (id)');
+PREPARE stmt FROM @add_fk;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_index := IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                             WHERE table_schema = DATABASE() AND table_name = 'barbers' AND index_name = 'idx_barbers_shop'),
+                  'DO 0',
+                  'CREATE INDEX idx_barbers_shop ON barbers (shop_id)');
+PREPARE stmt FROM @add_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @add_index := IF(EXISTS(SELECT 1 FROM information_schema.statistics
+                             WHERE table_schema = DATABASE() AND table_name = 'services' AND index_name = 'idx_services_shop'),
+                  'DO 0',
+                  'CREATE INDEX idx_services_shop ON services (shop_id)');
+PREPARE stmt FROM @add_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
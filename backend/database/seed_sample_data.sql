@@ -5,7 +5,9 @@
 --   * a catalog of services
 --   * two sample barbers and their services
 --   * weekly availability slots for each barber
---   * the global shop opening hours
+--   * the opening hours of the default shop
+--
+-- All rows go to the default shop (id 1); run migration_multi_shop.sql first on older schemas.
 --
 -- The BCrypt hash used below corresponds to the plain text password "password"
 -- so you can log in with that credential after seeding (change it in production).
@@ -26,6 +28,9 @@ SET FOREIGN_KEY_CHECKS = 1;
 
 START TRANSACTION;
 
+INSERT INTO shops (id, nome, indirizzo, is_active) VALUES (1, 'Sede principale', NULL, 1)
+  ON DUPLICATE KEY UPDATE id = id;
+
 INSERT INTO users (nome, cognome, email, password, ruolo, data_creazione) VALUES
   ('Admin', 'Barbiere', 'admin@barbershop.local', '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5Y8DT8uMerOAZZU1iG8BtW/6p16ea', 'ADMIN', NOW()),
   ('Marco', 'Rossi', 'marco.rossi@example.com', '$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5Y8DT8uMerOAZZU1iG8BtW/6p16ea', 'CLIENTE', NOW());
@@ -0,0 +1,105 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.AppointmentChangedEvent;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
+import com.example.demo.model.BarberServices;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.BusinessHours;
+import com.example.demo.model.Services;
+import com.example.demo.model.Shop;
+import com.example.demo.model.Users;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Keeps the in-memory caches of all nodes converging. Every committed change event of this node
+ * is broadcast through the {@link InvalidationTransport}; the events received from peers evict
+ * the matching second-level cache regions and are then published locally, so the schedule
+ * board, the slot versions and the heatmap react to remote writes exactly as to local ones.
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ThreadLocal<Boolean> replaying = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    private InvalidationTransport transport;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void subscribe() {
+        transport.subscribe(this::receive);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        broadcast(InvalidationMessage.of(nodeId, event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        broadcast(InvalidationMessage.of(nodeId, event));
+    }
+
+    private void broadcast(InvalidationMessage message) {
+        if (replaying.get()) {
+            return;
+        }
+        try {
+            transport.broadcast(message);
+        } catch (RuntimeException e) {
+            // The change is committed: peers catch up when their caches expire
+            logger.warn("Invalidazione non inviata ai nodi: {}", message, e);
+        }
+    }
+
+    void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin())) {
+            return;
+        }
+        if (message.catalog() != null) {
+            evictSecondLevel(message.catalog());
+        }
+        replaying.set(true);
+        try {
+            eventPublisher.publishEvent(message.toEvent());
+        } finally {
+            replaying.remove();
+        }
+    }
+
+    private void evictSecondLevel(Catalog catalog) {
+        Cache cache = entityManagerFactory.getCache();
+        switch (catalog) {
+            case SERVICES -> cache.evict(Services.class);
+            case BARBERS -> {
+                cache.evict(Barbers.class);
+                cache.evict(BarberServices.class);
+            }
+            case BUSINESS_HOURS -> cache.evict(BusinessHours.class);
+            case SHOPS -> cache.evict(Shop.class);
+            case USERS -> cache.evict(Users.class);
+        }
+        // The update timestamps only see local writes, so cached query results could still be stale
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.AppointmentChangedEvent;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
+
+import java.time.LocalDate;
+
+/**
+ * A change event as it travels between nodes: either a catalog or an appointment day.
+ *
+ * @param origin        the id of the node that made the change
+ * @param catalog       the catalog that changed, null for appointment changes
+ * @param appointmentId the appointment id, null for catalog changes
+ * @param barberId      the barber whose day changed, null for catalog changes
+ * @param data          the day that changed, null for catalog changes
+ */
+public record InvalidationMessage(String origin, Catalog catalog, Long appointmentId, Long barberId, LocalDate data) {
+
+    static InvalidationMessage of(String origin, CatalogChangedEvent event) {
+        return new InvalidationMessage(origin, event.catalog(), null, null, null);
+    }
+
+    static InvalidationMessage of(String origin, AppointmentChangedEvent event) {
+        return new InvalidationMessage(origin, null, event.appointmentId(), event.barberId(), event.data());
+    }
+
+    /**
+     * Gets the event to publish on the receiving node.
+     *
+     * @return a {@link CatalogChangedEvent} or an {@link AppointmentChangedEvent}
+     */
+    Object toEvent() {
+        return catalog != null ? new CatalogChangedEvent(catalog) : new AppointmentChangedEvent(appointmentId, barberId, data);
+    }
+}
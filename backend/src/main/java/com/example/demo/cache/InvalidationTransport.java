@@ -0,0 +1,24 @@
+package com.example.demo.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link InvalidationMessage}s between the nodes of a deployment. Delivery is at least
+ * once and may include the sender's own messages: receivers must tolerate both.
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Sends a message to every node.
+     *
+     * @param message the message
+     */
+    void broadcast(InvalidationMessage message);
+
+    /**
+     * Registers a receiver for the messages of every node.
+     *
+     * @param receiver the receiver, called outside of any transaction
+     */
+    void subscribe(Consumer<InvalidationMessage> receiver);
+}
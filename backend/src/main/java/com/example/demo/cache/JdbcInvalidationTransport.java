@@ -0,0 +1,124 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CatalogChangedEvent.Catalog;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport through the shared database, for deployments with several nodes and no broker:
+ * messages are rows of {@code cache_invalidations} and every node polls the table every
+ * {@code app.invalidation.poll-interval}, which bounds how long peer caches can lag.
+ * <p>
+ * Each poll reads the rows after the highest id this node has seen, so the cost does not depend
+ * on clock skew between nodes or on the volume of a time window. Messages are inserted in their
+ * own short transaction after the change committed, which keeps the window in which ids could
+ * become visible out of order down to a single insert. Rows are deleted after
+ * {@code app.invalidation.retention}; the table is created by
+ * {@code database/migration_cache_invalidations.sql}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "jdbc")
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcInvalidationTransport.class);
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.invalidation.retention:10m}")
+    private Duration retention;
+
+    private final List<Consumer<InvalidationMessage>> receivers = new CopyOnWriteArrayList<>();
+    private long lastSeen;
+    private Instant nextPurge = Instant.EPOCH;
+
+    /**
+     * Starts from the current end of the table: the caches of a starting node are empty, so older
+     * messages have nothing to evict.
+     */
+    @PostConstruct
+    synchronized void start() {
+        lastSeen = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations", Long.class);
+    }
+
+    // Called after the change committed, when the finished transaction's connection would not commit the row
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void broadcast(InvalidationMessage message) {
+        jdbcTemplate.update("INSERT INTO cache_invalidations "
+                        + "(origin, catalog, appointment_id, barber_id, data, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                message.origin(),
+                message.catalog() != null ? message.catalog().name() : null,
+                message.appointmentId(),
+                message.barberId(),
+                message.data() != null ? Date.valueOf(message.data()) : null,
+                Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Delivers the rows written since the previous poll to the receivers of this node.
+     */
+    @Scheduled(fixedDelayString = "${app.invalidation.poll-interval:1s}")
+    public synchronized void poll() {
+        Instant now = Instant.now();
+        if (now.isAfter(nextPurge)) {
+            nextPurge = now.plus(PURGE_INTERVAL);
+            jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?", Timestamp.from(now.minus(retention)));
+        }
+        List<Row> rows = jdbcTemplate.query(
+                "SELECT id, origin, catalog, appointment_id, barber_id, data FROM cache_invalidations "
+                        + "WHERE id > ? ORDER BY id",
+                (rs, rowNum) -> {
+                    String catalog = rs.getString("catalog");
+                    Date data = rs.getDate("data");
+                    return new Row(rs.getLong("id"), new InvalidationMessage(
+                            rs.getString("origin"),
+                            catalog != null ? Catalog.valueOf(catalog) : null,
+                            rs.getObject("appointment_id", Long.class),
+                            rs.getObject("barber_id", Long.class),
+                            data != null ? data.toLocalDate() : null));
+                },
+                lastSeen);
+
+        for (Row row : rows) {
+            lastSeen = row.id();
+            deliver(row.message());
+        }
+    }
+
+    private void deliver(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> receiver : receivers) {
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException e) {
+                logger.warn("Invalidazione non applicata: {}", message, e);
+            }
+        }
+    }
+
+    private record Row(long id, InvalidationMessage message) {
+    }
+}
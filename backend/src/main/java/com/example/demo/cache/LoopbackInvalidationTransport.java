@@ -0,0 +1,40 @@
+package com.example.demo.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transport for single-node deployments: messages only come back to this node, where the bus
+ * ignores its own, so nothing leaves the process. Tests broadcast messages with another origin
+ * through it to play the part of a peer.
+ */
+@Component
+@ConditionalOnProperty(name = "app.invalidation.transport", havingValue = "loopback", matchIfMissing = true)
+public class LoopbackInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoopbackInvalidationTransport.class);
+
+    private final List<Consumer<InvalidationMessage>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void broadcast(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> receiver : receivers) {
+            try {
+                receiver.accept(message);
+            } catch (RuntimeException e) {
+                logger.warn("Invalidazione non applicata: {}", message, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> receiver) {
+        receivers.add(receiver);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.AppointmentChangedEvent;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a version stamp for every cacheable public resource so controllers can answer
+ * conditional GETs with 304 without touching the repositories.
+ * <p>
+ * All versions come from a single monotonic clock, so the stamp of a resource that depends
+ * on several others is simply the newest of them. Versions live in memory: the epoch in the
+ * ETag makes sure clients revalidate after a restart.
+ */
+@Component
+public class ResourceVersions {
+
+    private static final int MAX_SLOT_ENTRIES = 10_000;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Stamp initial = new Stamp(0, System.currentTimeMillis() / 1000 * 1000);
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<Catalog, Stamp> catalogs = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Stamp> slots = new ConcurrentHashMap<>();
+    private volatile Stamp pruned = initial;
+
+    /**
+     * Gets the current stamp of a catalog.
+     *
+     * @param catalog the catalog
+     * @return the stamp
+     */
+    public Stamp catalog(Catalog catalog) {
+        return catalogs.getOrDefault(catalog, initial);
+    }
+
+    /**
+     * Gets the stamp of a combination of catalogs, i.e. the newest of them.
+     *
+     * @param first  the first catalog
+     * @param second the second catalog
+     * @return the stamp
+     */
+    public Stamp catalogs(Catalog first, Catalog second) {
+        return newest(catalog(first), catalog(second));
+    }
+
+    /**
+     * Gets the stamp of the available slots of a barber on a day. Slots also depend on the
+     * service durations and on the shop hours, so those catalogs are folded in.
+     *
+     * @param barberId the barber id
+     * @param date     the date
+     * @return the stamp
+     */
+    public Stamp slots(Long barberId, LocalDate date) {
+        Stamp day = slots.get(new SlotKey(barberId, date));
+        if (day == null) {
+            day = date.isBefore(LocalDate.now()) ? pruned : initial;
+        }
+        return newest(day, catalogs(Catalog.SERVICES, Catalog.BUSINESS_HOURS));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        catalogs.put(event.catalog(), next());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (slots.size() >= MAX_SLOT_ENTRIES) {
+            // Past days that lose their entry fall back to a fresh stamp, never to an older one
+            LocalDate today = LocalDate.now();
+            pruned = next();
+            slots.keySet().removeIf(key -> key.date().isBefore(today));
+        }
+        slots.put(new SlotKey(event.barberId(), event.data()), next());
+    }
+
+    /**
+     * Builds the strong ETag for a stamp. Versions are shared by all shops, so the shop is part
+     * of the tag: the same version of two shops' catalogs must not validate each other.
+     *
+     * @param stamp  the stamp
+     * @param shopId the shop the response was built for
+     * @return the quoted ETag value
+     */
+    public String etag(Stamp stamp, long shopId) {
+        return "\"" + epoch + "-" + shopId + "-" + stamp.version() + "\"";
+    }
+
+    private Stamp next() {
+        return new Stamp(clock.incrementAndGet(), System.currentTimeMillis());
+    }
+
+    private Stamp newest(Stamp a, Stamp b) {
+        return a.version() >= b.version() ? a : b;
+    }
+
+    private record SlotKey(Long barberId, LocalDate date) {
+    }
+
+    /**
+     * A resource version together with the time it was last written.
+     */
+    public record Stamp(long version, long lastModified) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.cache;
+
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.event.AppointmentChangedEvent;
+import com.example.demo.model.Appointments;
+import com.example.demo.repository.AppointmentsRepository;
+import com.example.demo.repository.BarbersRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory board of the confirmed appointments of today and the next days, kept per shop,
+ * grouped by barber and sorted by start time, so the admin agenda is served without querying
+ * the database.
+ * <p>
+ * A day is loaded once and then patched by every {@link AppointmentChangedEvent}, including the
+ * ones of other nodes relayed by the {@link InvalidationBus}: only the changed appointment is
+ * re-read and moved in or out of its barber's list. Each day is also reloaded after
+ * {@code app.schedule.max-age}, which bounds the staleness caused by writes that bypass the
+ * events (lost invalidations, manual SQL). Days outside the window are read straight from
+ * the repository.
+ */
+@Component
+public class ScheduleBoard {
+
+    private static final Comparator<AppointmentResponse> BY_START =
+            Comparator.comparing(AppointmentResponse::getOrarioInizio);
+
+    @Autowired
+    private AppointmentsRepository appointmentsRepository;
+
+    @Autowired
+    private BarbersRepository barbersRepository;
+
+    @Value("${app.schedule.window-days:14}")
+    private int windowDays;
+
+    @Value("${app.schedule.max-age:5m}")
+    private Duration maxAge;
+
+    private final Map<ShopDay, Day> days = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the confirmed appointments of a shop on a day, sorted by start time.
+     *
+     * @param shopId the shop id
+     * @param date   the date
+     * @return the list of appointments
+     */
+    public List<AppointmentResponse> getDay(long shopId, LocalDate date) {
+        if (!inWindow(date)) {
+            return toResponses(load(shopId, date));
+        }
+        days.keySet().removeIf(key -> key.date().isBefore(LocalDate.now()));
+        return days.compute(new ShopDay(shopId, date),
+                        (key, day) -> day != null && !day.isExpired(maxAge) ? day : Day.of(load(key.shopId(), key.date())))
+                .appointments();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        if (!inWindow(event.data())) {
+            return;
+        }
+        // Barbers are in the second-level cache, so finding the shop does not reach the database
+        ShopDay eventDay = barbersRepository.findById(event.barberId())
+                .map(barber -> new ShopDay(barber.getShopId(), event.data()))
+                .orElse(null);
+        if (eventDay == null || !days.containsKey(eventDay)) {
+            return;
+        }
+        Appointments appointment = appointmentsRepository.findDetailedById(event.appointmentId())
+                .filter(found -> found.getStato() == Appointments.StatoAppuntamento.CONFERMATO)
+                .orElse(null);
+        AppointmentResponse current = appointment != null ? AppointmentResponse.from(appointment) : null;
+        ShopDay currentDay = appointment != null ? new ShopDay(appointment.getBarber().getShopId(), appointment.getData()) : null;
+
+        // A move publishes the old and the new day: drop the appointment from the event's day
+        // and re-add it only where it lives now
+        days.computeIfPresent(eventDay, (key, day) -> day.without(event.appointmentId())
+                .with(key.equals(currentDay) ? current : null));
+        if (currentDay != null && !currentDay.equals(eventDay)) {
+            days.computeIfPresent(currentDay, (key, day) -> day.without(event.appointmentId()).with(current));
+        }
+    }
+
+    private boolean inWindow(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(windowDays));
+    }
+
+    private List<Appointments> load(long shopId, LocalDate date) {
+        return appointmentsRepository.findByBarberShopIdAndDataAndStatoOrderByOrarioInizioAsc(shopId, date,
+                Appointments.StatoAppuntamento.CONFERMATO);
+    }
+
+    private static List<AppointmentResponse> toResponses(List<Appointments> appointments) {
+        return appointments.stream()
+                .map(AppointmentResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    private record ShopDay(long shopId, LocalDate date) {
+    }
+
+    /**
+     * Immutable snapshot of one day: the sorted appointments of each barber and their merge.
+     */
+    private record Day(Map<Long, List<AppointmentResponse>> byBarber, List<AppointmentResponse> appointments, long loadedAt) {
+
+        static Day of(List<Appointments> appointments) {
+            Map<Long, List<AppointmentResponse>> byBarber = toResponses(appointments).stream()
+                    .collect(Collectors.groupingBy(appointment -> appointment.getBarber().getId()));
+            return new Day(byBarber, merge(byBarber), System.nanoTime());
+        }
+
+        boolean isExpired(Duration maxAge) {
+            return System.nanoTime() - loadedAt > maxAge.toNanos();
+        }
+
+        Day without(Long appointmentId) {
+            Map<Long, List<AppointmentResponse>> byBarber = new HashMap<>();
+            this.byBarber.forEach((barberId, list) -> byBarber.put(barberId, list.stream()
+                    .filter(appointment -> !appointment.getId().equals(appointmentId))
+                    .collect(Collectors.toList())));
+            return new Day(byBarber, merge(byBarber), loadedAt);
+        }
+
+        Day with(AppointmentResponse appointment) {
+            if (appointment == null) {
+                return this;
+            }
+            Map<Long, List<AppointmentResponse>> byBarber = new HashMap<>(this.byBarber);
+            List<AppointmentResponse> list = new ArrayList<>(byBarber.getOrDefault(appointment.getBarber().getId(), List.of()));
+            int index = 0;
+            while (index < list.size() && BY_START.compare(list.get(index), appointment) <= 0) {
+                index++;
+            }
+            list.add(index, appointment);
+            byBarber.put(appointment.getBarber().getId(), list);
+            return new Day(byBarber, merge(byBarber), loadedAt);
+        }
+
+        private static List<AppointmentResponse> merge(Map<Long, List<AppointmentResponse>> byBarber) {
+            return byBarber.values().stream()
+                    .flatMap(List::stream)
+                    .sorted(BY_START)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool for the independent queries of the admin dashboard. When it is saturated the
+     * request thread runs the query itself, so load turns into latency instead of unbounded queueing.
+     * Tasks run with the submitter's security context, so the read routing still sees who is asking
+     * and keeps a user who just wrote on the primary.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${app.dashboard.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 16);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setTaskDecorator(DelegatingSecurityContextRunnable::new);
+        return executor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.config;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently so their reads keep going to the primary for a short
+ * window, giving read-your-writes on top of an asynchronously replicated replica.
+ * Anonymous callers share no identity, so they are never pinned.
+ */
+public class PrimaryStickiness {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    public PrimaryStickiness(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Records that the current transaction wrote: its user is pinned to the primary once it commits.
+     * Outside a transaction the user is pinned at once.
+     */
+    public void markWrite() {
+        String user = currentUser();
+        if (user == null || windowNanos <= 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pin(user);
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, user);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(user);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PrimaryStickiness.this);
+            }
+        });
+    }
+
+    private void pin(String user) {
+        long now = System.nanoTime();
+        if (pinnedUntil.size() >= CLEANUP_THRESHOLD) {
+            pinnedUntil.values().removeIf(until -> until - now < 0);
+        }
+        pinnedUntil.put(user, now + windowNanos);
+    }
+
+    /**
+     * Tells whether the current user wrote within the stickiness window.
+     *
+     * @return true if reads must stay on the primary
+     */
+    public boolean isPinned() {
+        String user = currentUser();
+        if (user == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(user);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the primary.
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the route is chosen at the first statement, once the transaction attributes are known.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final PrimaryStickiness stickiness;
+
+    ReplicaRoutingDataSource(PrimaryStickiness stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return stickiness.isPinned() ? Route.PRIMARY : Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.config;
 
+import com.example.demo.filter.IdempotencyFilter;
 import com.example.demo.filter.JwtRequestFilter;
+import com.example.demo.filter.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,6 +16,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
@@ -25,6 +28,12 @@ public class SecurityConfig {
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
 
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
 
@@ -35,14 +44,18 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/auth/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAnyAuthority("ADMIN", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.GET, "/services/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/barbers/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/business-hours/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/shops/**").permitAll()
                 .requestMatchers(HttpMethod.POST, "/barbers/**").hasAnyAuthority("ADMIN", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/barbers/**").hasAnyAuthority("ADMIN", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/barbers/**").hasAnyAuthority("ADMIN", "ROLE_ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/business-hours/**").hasAnyAuthority("ADMIN", "ROLE_ADMIN")
-                .requestMatchers(HttpMethod.GET, "/appointments/available-slots").permitAll()
+                .requestMatchers(HttpMethod.GET, "/appointments/available-slots", "/appointments/available-blocks",
+                        "/appointments/next-available").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -50,6 +63,10 @@ public class SecurityConfig {
             );
 
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // After the JWT filter, so authenticated callers get a per-user bucket
+        http.addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
+        // After authentication, so idempotency keys are scoped to the caller
+        http.addFilterAfter(idempotencyFilter, AuthorizationFilter.class);
 
         return http.build();
     }
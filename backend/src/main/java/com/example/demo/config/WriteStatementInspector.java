@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Locale;
+
+/**
+ * Watches the SQL Hibernate sends and reports data-changing statements to {@link PrimaryStickiness},
+ * so only transactions that actually wrote pin their user to the primary.
+ */
+class WriteStatementInspector implements StatementInspector {
+
+    private final PrimaryStickiness stickiness;
+
+    WriteStatementInspector(PrimaryStickiness stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (isWrite(sql)) {
+            stickiness.markWrite();
+        }
+        return sql;
+    }
+
+    private static boolean isWrite(String sql) {
+        String statement = sql.stripLeading();
+        if (statement.startsWith("/*")) {
+            int end = statement.indexOf("*/");
+            statement = end < 0 ? "" : statement.substring(end + 2).stripLeading();
+        }
+        String verb = statement.length() > 6 ? statement.substring(0, 6).toLowerCase(Locale.ROOT) : "";
+        return verb.equals("insert") || verb.equals("update") || verb.equals("delete");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AdminDashboardResponse;
+import com.example.demo.dto.CapacityHeatmapResponse;
+import com.example.demo.service.AdminDashboardService;
+import com.example.demo.service.CapacityHeatmapService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminDashboardController {
+
+    @Autowired
+    private AdminDashboardService adminDashboardService;
+
+    @Autowired
+    private CapacityHeatmapService capacityHeatmapService;
+
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public AdminDashboardResponse getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return adminDashboardService.getDashboard(date != null ? date : LocalDate.now());
+    }
+
+    @GetMapping("/capacity-heatmap")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public CapacityHeatmapResponse getCapacityHeatmap(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return capacityHeatmapService.getHeatmap(month != null ? month : YearMonth.now());
+    }
+}
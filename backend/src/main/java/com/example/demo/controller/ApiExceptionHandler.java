@@ -0,0 +1,31 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ConflictResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    /**
+     * Answers 409 when an entity was changed by someone else between read and write. The client
+     * should reload the resource, re-apply its edit on the new version and send it again.
+     *
+     * @param e the optimistic locking failure
+     * @return the conflict response
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ConflictResponse> handleOptimisticLock(ObjectOptimisticLockingFailureException e) {
+        logger.info("Modifica concorrente su {} {}", e.getPersistentClassName(), e.getIdentifier());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ConflictResponse(
+                "La risorsa è stata modificata da un altro utente",
+                "Ricaricare i dati aggiornati e ripetere la modifica"));
+    }
+}
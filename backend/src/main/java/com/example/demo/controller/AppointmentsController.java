@@ -1,17 +1,31 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ResourceVersions;
+import com.example.demo.cache.ScheduleBoard;
 import com.example.demo.dto.AppointmentRequest;
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.dto.AppointmentTimelineResponse;
 import com.example.demo.dto.AvailableSlotResponse;
+import com.example.demo.dto.BlockAppointmentRequest;
+import com.example.demo.dto.NextAvailableSlotResponse;
+import com.example.demo.dto.RecurringAppointmentRequest;
+import com.example.demo.dto.RecurringAppointmentResponse;
 import com.example.demo.model.Appointments;
+import com.example.demo.service.AppointmentHistoryService;
 import com.example.demo.service.AppointmentsService;
+import com.example.demo.util.ShopContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/appointments")
@@ -20,34 +34,67 @@ public class AppointmentsController {
     @Autowired
     private AppointmentsService appointmentsService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private ScheduleBoard scheduleBoard;
+
+    @Autowired
+    private AppointmentHistoryService appointmentHistoryService;
+
     @PostMapping
-    public ResponseEntity<Appointments> createAppointment(@RequestBody AppointmentRequest request) {
-        return ResponseEntity.ok(appointmentsService.createAppointment(request));
+    public ResponseEntity<AppointmentResponse> createAppointment(@RequestBody AppointmentRequest request) {
+        return ResponseEntity.ok(AppointmentResponse.from(appointmentsService.createAppointment(request)));
+    }
+
+    @PostMapping("/block")
+    public List<AppointmentResponse> createBlockAppointment(@RequestBody BlockAppointmentRequest request) {
+        return toResponses(appointmentsService.createBlockAppointment(request));
+    }
+
+    @PostMapping("/recurring")
+    public ResponseEntity<RecurringAppointmentResponse> createRecurringAppointments(
+            @RequestBody RecurringAppointmentRequest request) {
+        return ResponseEntity.ok(appointmentsService.createRecurringAppointments(request));
     }
 
     @GetMapping("/user/{userId}")
-    public List<Appointments> getAppointmentsByUser(@PathVariable Long userId) {
-        return appointmentsService.getAppointmentsByUser(userId);
+    public List<AppointmentResponse> getAppointmentsByUser(@PathVariable Long userId) {
+        return appointmentsService.getCustomerHistory(userId);
     }
 
     @GetMapping("/barber/{barberId}")
-    public List<Appointments> getAppointmentsByBarber(@PathVariable Long barberId) {
-        return appointmentsService.getAppointmentsByBarber(barberId);
+    public List<AppointmentResponse> getAppointmentsByBarber(@PathVariable Long barberId) {
+        return toResponses(appointmentsService.getAppointmentsByBarber(barberId));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Appointments> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<AppointmentResponse> getAppointmentById(@PathVariable Long id) {
         return appointmentsService.getAppointmentById(id)
+                .map(AppointmentResponse::from)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<AppointmentTimelineResponse> getAppointmentHistory(@PathVariable Long id) {
+        return appointmentHistoryService.getTimeline(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PutMapping("/{id}")
-    public ResponseEntity<Appointments> updateAppointment(
+    public ResponseEntity<AppointmentResponse> updateAppointment(
             @PathVariable Long id,
             @RequestBody AppointmentRequest request) {
-        return ResponseEntity.ok(appointmentsService.updateAppointment(id, request));
+        // Without the version the edit could silently overwrite a concurrent change
+        if (request.getVersion() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La versione dell'appuntamento è obbligatoria");
+        }
+        return ResponseEntity.ok(AppointmentResponse.from(appointmentsService.updateAppointment(id, request)));
     }
 
     @DeleteMapping("/{id}")
@@ -60,20 +107,50 @@ public class AppointmentsController {
     public List<AvailableSlotResponse> getAvailableSlots(
             @RequestParam Long barberId,
             @RequestParam Long serviceId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.slots(barberId, date))) {
+            return null;
+        }
         return appointmentsService.getAvailableSlots(barberId, serviceId, date);
     }
 
+    @GetMapping("/available-blocks")
+    public List<AvailableSlotResponse> getAvailableBlocks(
+            @RequestParam Long barberId,
+            @RequestParam List<Long> serviceIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.slots(barberId, date))) {
+            return null;
+        }
+        return appointmentsService.getAvailableBlocks(barberId, serviceIds, date);
+    }
+
+    @GetMapping("/next-available")
+    public List<NextAvailableSlotResponse> getNextAvailableSlots(
+            @RequestParam Long serviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "5") int limit) {
+        return appointmentsService.getNextAvailableSlots(serviceId, from != null ? from : LocalDate.now(), limit);
+    }
+
     @GetMapping
     @PreAuthorize("hasAuthority('ADMIN')")
-    public List<Appointments> getAllAppointments() {
-        return appointmentsService.getAllAppointments();
+    public List<AppointmentResponse> getAllAppointments() {
+        return toResponses(appointmentsService.getAllAppointments());
     }
 
     @GetMapping("/by-date")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public List<Appointments> getAppointmentsByDate(
+    public List<AppointmentResponse> getAppointmentsByDate(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return appointmentsService.getAppointmentsByDate(date);
+        return scheduleBoard.getDay(ShopContext.currentShopId(), date);
+    }
+
+    private List<AppointmentResponse> toResponses(List<Appointments> appointments) {
+        return appointments.stream()
+                .map(AppointmentResponse::from)
+                .collect(Collectors.toList());
     }
 }
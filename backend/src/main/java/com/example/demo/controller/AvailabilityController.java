@@ -1,11 +1,13 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.AvailabilityResponse;
 import com.example.demo.model.Availability;
 import com.example.demo.service.AvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/availability")
@@ -20,12 +22,18 @@ public class AvailabilityController {
     }
 
     @GetMapping
-    public List<Availability> getAllAvailability() {
-        return availabilityService.getAllAvailability();
+    public List<AvailabilityResponse> getAllAvailability() {
+        return toResponses(availabilityService.getAllAvailability());
     }
 
     @GetMapping("/{barberId}")
-    public List<Availability> getAvailabilityByBarber(@PathVariable Long barberId) {
-        return availabilityService.getAvailabilityByBarber(barberId);
+    public List<AvailabilityResponse> getAvailabilityByBarber(@PathVariable Long barberId) {
+        return toResponses(availabilityService.getAvailabilityByBarber(barberId));
+    }
+
+    private List<AvailabilityResponse> toResponses(List<Availability> availability) {
+        return availability.stream()
+                .map(AvailabilityResponse::from)
+                .collect(Collectors.toList());
     }
 }
@@ -1,19 +1,25 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ResourceVersions;
+import com.example.demo.dto.AvailabilityResponse;
 import com.example.demo.dto.BarberAvailabilityRequest;
+import com.example.demo.dto.BarberResponse;
 import com.example.demo.dto.BarberServiceRequest;
+import com.example.demo.dto.ServiceResponse;
 import com.example.demo.dto.UpdateBarberServicesRequest;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
 import com.example.demo.model.Barbers;
 import com.example.demo.model.Availability;
 import com.example.demo.model.BarberServices;
-import com.example.demo.model.Services;
 import com.example.demo.service.BarbersService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/barbers")
@@ -22,28 +28,38 @@ public class BarbersController {
     @Autowired
     private BarbersService barbersService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public List<Barbers> getAllBarbers() {
-        return barbersService.getAllBarbers();
+    public List<BarberResponse> getAllBarbers(WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.BARBERS))) {
+            return null;
+        }
+        return toResponses(barbersService.getAllBarbers());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Barbers> getBarberById(@PathVariable Long id) {
+    public ResponseEntity<BarberResponse> getBarberById(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.BARBERS))) {
+            return null;
+        }
         return barbersService.getBarberById(id)
+                .map(BarberResponse::from)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PostMapping
-    public Barbers createBarber(@RequestBody Barbers barber) {
-        return barbersService.createBarber(barber);
+    public BarberResponse createBarber(@RequestBody Barbers barber) {
+        return BarberResponse.from(barbersService.createBarber(barber));
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
     @PutMapping("/{id}")
-    public ResponseEntity<Barbers> updateBarber(@PathVariable Long id, @RequestBody Barbers barber) {
-        return ResponseEntity.ok(barbersService.updateBarber(id, barber));
+    public ResponseEntity<BarberResponse> updateBarber(@PathVariable Long id, @RequestBody Barbers barber) {
+        return ResponseEntity.ok(BarberResponse.from(barbersService.updateBarber(id, barber)));
     }
 
     @PreAuthorize("hasAuthority('ADMIN')")
@@ -62,8 +78,14 @@ public class BarbersController {
     }
 
     @GetMapping("/{id}/services")
-    public List<Services> getBarberServices(@PathVariable Long id) {
-        return barbersService.getServicesForBarber(id);
+    public List<ServiceResponse> getBarberServices(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions,
+                resourceVersions.catalogs(Catalog.BARBERS, Catalog.SERVICES))) {
+            return null;
+        }
+        return barbersService.getServicesForBarber(id).stream()
+                .map(ServiceResponse::from)
+                .collect(Collectors.toList());
     }
 
     @PreAuthorize("hasAnyAuthority('ADMIN', 'ROLE_ADMIN')")
@@ -83,12 +105,23 @@ public class BarbersController {
     }
 
     @GetMapping("/{id}/availability")
-    public List<Availability> getBarberAvailability(@PathVariable Long id) {
-        return barbersService.getBarberAvailability(id);
+    public List<AvailabilityResponse> getBarberAvailability(@PathVariable Long id) {
+        return barbersService.getBarberAvailability(id).stream()
+                .map(AvailabilityResponse::from)
+                .collect(Collectors.toList());
     }
 
     @GetMapping("/service/{serviceId}")
-    public List<Barbers> getBarbersByService(@PathVariable Long serviceId) {
-        return barbersService.getBarbersByService(serviceId);
+    public List<BarberResponse> getBarbersByService(@PathVariable Long serviceId, WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.BARBERS))) {
+            return null;
+        }
+        return toResponses(barbersService.getBarbersByService(serviceId));
+    }
+
+    private List<BarberResponse> toResponses(List<Barbers> barbers) {
+        return barbers.stream()
+                .map(BarberResponse::from)
+                .collect(Collectors.toList());
     }
 }
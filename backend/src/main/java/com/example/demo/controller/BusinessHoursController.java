@@ -1,11 +1,14 @@
 package com.example.demo.controller;
 
+import com.example.demo.cache.ResourceVersions;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
 import com.example.demo.model.BusinessHours;
 import com.example.demo.service.BusinessHoursService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -16,8 +19,14 @@ public class BusinessHoursController {
     @Autowired
     private BusinessHoursService businessHoursService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @GetMapping
-    public List<BusinessHours> getBusinessHours() {
+    public List<BusinessHours> getBusinessHours(WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.BUSINESS_HOURS))) {
+            return null;
+        }
         return businessHoursService.getBusinessHours();
     }
 
@@ -0,0 +1,39 @@
+package com.example.demo.controller;
+
+import com.example.demo.cache.ResourceVersions;
+import com.example.demo.filter.ShopFilter;
+import com.example.demo.util.ShopContext;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET support for the public read endpoints.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Writes the validators of a stamp on the response and checks them against the request.
+     * Responses are marked {@code no-cache} so browsers store them but always revalidate.
+     *
+     * @param request  the current request
+     * @param versions the version registry
+     * @param stamp    the stamp of the requested resource
+     * @return true if the response has been turned into a 304 and the handler must return null
+     */
+    static boolean notModified(WebRequest request, ResourceVersions versions, ResourceVersions.Stamp stamp) {
+        if (request instanceof NativeWebRequest nativeRequest) {
+            HttpServletResponse response = nativeRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+                response.setHeader(HttpHeaders.VARY, ShopFilter.HEADER);
+            }
+        }
+        return request.checkNotModified(versions.etag(stamp, ShopContext.currentShopId()), stamp.lastModified());
+    }
+}
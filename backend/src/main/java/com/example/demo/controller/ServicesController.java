@@ -1,6 +1,9 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.Barbers;
+import com.example.demo.cache.ResourceVersions;
+import com.example.demo.dto.BarberResponse;
+import com.example.demo.dto.ServiceResponse;
+import com.example.demo.event.CatalogChangedEvent.Catalog;
 import com.example.demo.model.Services;
 import com.example.demo.service.BarbersService;
 import com.example.demo.service.ServicesService;
@@ -8,8 +11,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/services")
@@ -21,19 +26,30 @@ public class ServicesController {
     @Autowired
     private BarbersService barbersService;
 
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     @PostMapping
     public Services createService(@RequestBody @NonNull Services service) {
         return servicesService.createService(service);
     }
 
     @GetMapping
-    public List<Services> getAllServices() {
-        return servicesService.getAllServices();
+    public List<ServiceResponse> getAllServices(WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.SERVICES))) {
+            return null;
+        }
+        return servicesService.getAllServices().stream()
+                .map(ServiceResponse::from)
+                .collect(Collectors.toList());
     }
 
     @GetMapping("/{id}")
-    public Services getServiceById(@PathVariable @NonNull Long id) {
-        return servicesService.getServiceById(id).orElse(null);
+    public ServiceResponse getServiceById(@PathVariable @NonNull Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.SERVICES))) {
+            return null;
+        }
+        return servicesService.getServiceById(id).map(ServiceResponse::from).orElse(null);
     }
 
     @PutMapping("/{id}")
@@ -47,7 +63,12 @@ public class ServicesController {
     }
 
     @GetMapping("/{id}/barbers")
-    public List<Barbers> getBarbersByService(@PathVariable Long id) {
-        return barbersService.getBarbersByService(id);
+    public List<BarberResponse> getBarbersByService(@PathVariable Long id, WebRequest request) {
+        if (ConditionalRequests.notModified(request, resourceVersions, resourceVersions.catalog(Catalog.BARBERS))) {
+            return null;
+        }
+        return barbersService.getBarbersByService(id).stream()
+                .map(BarberResponse::from)
+                .collect(Collectors.toList());
     }
 }
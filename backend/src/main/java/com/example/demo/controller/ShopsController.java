@@ -0,0 +1,28 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Shop;
+import com.example.demo.service.ShopService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/shops")
+public class ShopsController {
+
+    @Autowired
+    private ShopService shopService;
+
+    @GetMapping
+    public List<Shop> getShops() {
+        return shopService.getActiveShops();
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'ROLE_ADMIN')")
+    @PostMapping
+    public Shop createShop(@RequestBody Shop shop) {
+        return shopService.createShop(shop);
+    }
+}
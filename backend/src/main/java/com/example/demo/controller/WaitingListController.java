@@ -1,6 +1,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.WaitingListRequest;
+import com.example.demo.dto.WaitingListResponse;
 import com.example.demo.model.WaitingList;
 import com.example.demo.service.WaitingListService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/waiting-list")
@@ -19,20 +21,20 @@ public class WaitingListController {
     private WaitingListService waitingListService;
 
     @PostMapping
-    public ResponseEntity<WaitingList> addToWaitingList(@RequestBody WaitingListRequest request) {
-        return ResponseEntity.ok(waitingListService.addToWaitingList(request));
+    public ResponseEntity<WaitingListResponse> addToWaitingList(@RequestBody WaitingListRequest request) {
+        return ResponseEntity.ok(WaitingListResponse.from(waitingListService.addToWaitingList(request)));
     }
 
     @GetMapping("/customer/{customerId}")
-    public List<WaitingList> getWaitingListByCustomer(@PathVariable Long customerId) {
-        return waitingListService.getWaitingListByCustomer(customerId);
+    public List<WaitingListResponse> getWaitingListByCustomer(@PathVariable Long customerId) {
+        return toResponses(waitingListService.getWaitingListByCustomer(customerId));
     }
 
     @GetMapping("/barber/{barberId}")
-    public List<WaitingList> getWaitingListByBarberAndDate(
+    public List<WaitingListResponse> getWaitingListByBarberAndDate(
             @PathVariable Long barberId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return waitingListService.getActiveWaitingListByBarberAndDate(barberId, date);
+        return toResponses(waitingListService.getActiveWaitingListByBarberAndDate(barberId, date));
     }
 
     @GetMapping("/{id}/position")
@@ -49,4 +51,10 @@ public class WaitingListController {
         waitingListService.cancelWaitingListEntry(id);
         return ResponseEntity.noContent().build();
     }
+
+    private List<WaitingListResponse> toResponses(List<WaitingList> entries) {
+        return entries.stream()
+                .map(WaitingListResponse::from)
+                .collect(Collectors.toList());
+    }
 }
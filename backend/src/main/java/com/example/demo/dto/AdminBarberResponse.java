@@ -0,0 +1,35 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Barbers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A barber as shown in the admin dashboard, together with the ids of the services it offers.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AdminBarberResponse {
+    private Long id;
+    private String nome;
+    private String cognome;
+    private String esperienza;
+    private String specialita;
+    private Boolean isActive;
+    private List<Long> serviceIds;
+
+    public static AdminBarberResponse from(Barbers barber, List<Long> serviceIds) {
+        return new AdminBarberResponse(
+                barber.getId(),
+                barber.getNome(),
+                barber.getCognome(),
+                barber.getEsperienza(),
+                barber.getSpecialita(),
+                barber.getIsActive(),
+                serviceIds);
+    }
+}
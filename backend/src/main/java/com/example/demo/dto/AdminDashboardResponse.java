@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Everything the admin dashboard needs on first load, in a single payload.
+ */
+@Data
+@AllArgsConstructor
+public class AdminDashboardResponse {
+    private LocalDate date;
+    private List<AdminBarberResponse> barbers;
+    private List<ServiceResponse> services;
+    private List<BusinessHoursResponse> businessHours;
+    private List<AppointmentResponse> appointments;
+}
@@ -11,4 +11,5 @@ public class AppointmentRequest {
     private Long serviceId;
     private LocalDate data;
     private LocalTime orarioInizio;
+    private Long version;
 }
@@ -0,0 +1,51 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AppointmentArchive;
+import com.example.demo.model.Appointments;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Lean view of an appointment, used by every appointment endpoint instead of the entity graph.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AppointmentResponse {
+    private Long id;
+    private CustomerSummary customer;
+    private BarberSummary barber;
+    private ServiceSummary service;
+    private LocalDate data;
+    private LocalTime orarioInizio;
+    private Appointments.StatoAppuntamento stato;
+    private Long version;
+
+    public static AppointmentResponse from(Appointments appointment) {
+        return new AppointmentResponse(
+                appointment.getId(),
+                CustomerSummary.from(appointment.getCustomer()),
+                BarberSummary.from(appointment.getBarber()),
+                ServiceSummary.from(appointment.getService()),
+                appointment.getData(),
+                appointment.getOrarioInizio(),
+                appointment.getStato(),
+                appointment.getVersion());
+    }
+
+    public static AppointmentResponse from(AppointmentArchive appointment) {
+        return new AppointmentResponse(
+                appointment.getId(),
+                CustomerSummary.from(appointment.getCustomer()),
+                BarberSummary.from(appointment.getBarber()),
+                ServiceSummary.from(appointment.getService()),
+                appointment.getData(),
+                appointment.getOrarioInizio(),
+                appointment.getStato(),
+                appointment.getVersion());
+    }
+}
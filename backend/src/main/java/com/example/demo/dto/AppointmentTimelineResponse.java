@@ -0,0 +1,34 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * History of an appointment rebuilt from its events: the state after every change, who made it
+ * and which fields it touched.
+ */
+@Data
+@AllArgsConstructor
+public class AppointmentTimelineResponse {
+    private Long appointmentId;
+    private List<Step> passi;
+
+    @Data
+    @AllArgsConstructor
+    public static class Step {
+        private String tipo;
+        private LocalDateTime quando;
+        private String attore;
+        private String stato;
+        private Long barberId;
+        private Long serviceId;
+        private LocalDate data;
+        private LocalTime orarioInizio;
+        private List<String> modifiche;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Availability;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalTime;
+
+/**
+ * Lean view of a weekly availability window; the barber is referenced by id only.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponse {
+    private Long id;
+    private Long barberId;
+    private Integer giorno;
+    private LocalTime orarioInizio;
+    private LocalTime orarioFine;
+
+    public static AvailabilityResponse from(Availability availability) {
+        return new AvailabilityResponse(
+                availability.getId(),
+                availability.getBarber() == null ? null : availability.getBarber().getId(),
+                availability.getGiorno(),
+                availability.getOrarioInizio(),
+                availability.getOrarioFine());
+    }
+}
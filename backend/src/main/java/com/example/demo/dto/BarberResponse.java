@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Barbers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Public view of a barber: the profile without the linked user account.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BarberResponse {
+    private Long id;
+    private String nome;
+    private String cognome;
+    private String esperienza;
+    private String specialita;
+    private Boolean isActive;
+
+    public static BarberResponse from(Barbers barber) {
+        return new BarberResponse(
+                barber.getId(),
+                barber.getNome(),
+                barber.getCognome(),
+                barber.getEsperienza(),
+                barber.getSpecialita(),
+                barber.getIsActive());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Barbers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The barber fields shown next to an appointment or a waiting-list entry.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BarberSummary {
+    private Long id;
+    private String nome;
+    private String cognome;
+
+    public static BarberSummary from(Barbers barber) {
+        return barber == null ? null : new BarberSummary(barber.getId(), barber.getNome(), barber.getCognome());
+    }
+}
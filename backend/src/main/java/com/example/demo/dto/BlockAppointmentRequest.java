@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+public class BlockAppointmentRequest {
+    private Long customerId;
+    private Long barberId;
+    private List<Long> serviceIds;
+    private LocalDate data;
+    private LocalTime orarioInizio;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.BusinessHours;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalTime;
+
+/**
+ * The opening hours of one weekday (0 = Sunday).
+ */
+@Data
+@AllArgsConstructor
+public class BusinessHoursResponse {
+    private Long id;
+    private Integer giorno;
+    private boolean aperto;
+    private LocalTime apertura;
+    private LocalTime chiusura;
+
+    public static BusinessHoursResponse from(BusinessHours hours) {
+        return new BusinessHoursResponse(
+                hours.getId(),
+                hours.getGiorno(),
+                hours.isAperto(),
+                hours.getApertura(),
+                hours.getChiusura());
+    }
+}
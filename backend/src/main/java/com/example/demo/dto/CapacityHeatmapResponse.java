@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Booked share of the shop capacity for every day and hour of a month, across all active barbers.
+ * Ratios go from 0 (empty) to 1 (every barber busy for the whole hour); closed hours are 0.
+ */
+@Data
+@AllArgsConstructor
+public class CapacityHeatmapResponse {
+    private YearMonth mese;
+    private long barbieri;
+    private List<DayOccupancy> giorni;
+
+    @Data
+    @AllArgsConstructor
+    public static class DayOccupancy {
+        private LocalDate data;
+        private double occupazione;
+        private double[] occupazioneOraria;
+    }
+}
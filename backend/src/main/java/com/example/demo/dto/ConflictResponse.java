@@ -0,0 +1,14 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Body of a 409 answer: what went wrong and how the client can retry.
+ */
+@Data
+@AllArgsConstructor
+public class ConflictResponse {
+    private String errore;
+    private String suggerimento;
+}
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Users;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The customer fields shown next to an appointment or a waiting-list entry.
+ * Never carries the password hash or the account metadata.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerSummary {
+    private Long id;
+    private String nome;
+    private String cognome;
+    private String email;
+
+    public static CustomerSummary from(Users user) {
+        return user == null ? null : new CustomerSummary(user.getId(), user.getNome(), user.getCognome(), user.getEmail());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+public class NextAvailableSlotResponse {
+    private BarberSummary barber;
+    private LocalDate data;
+    private LocalTime orarioInizio;
+    private LocalTime orarioFine;
+}
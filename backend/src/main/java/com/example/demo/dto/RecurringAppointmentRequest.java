@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class RecurringAppointmentRequest {
+    private Long customerId;
+    private Long barberId;
+    private Long serviceId;
+    private LocalDate data;
+    private LocalTime orarioInizio;
+    private int intervalloSettimane;
+    private int occorrenze;
+}
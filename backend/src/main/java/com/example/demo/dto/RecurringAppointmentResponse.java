@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Outcome of a recurring booking: the occurrences that were booked and the dates that conflicted.
+ */
+@Data
+@AllArgsConstructor
+public class RecurringAppointmentResponse {
+    private List<AppointmentResponse> created;
+    private List<LocalDate> conflicts;
+}
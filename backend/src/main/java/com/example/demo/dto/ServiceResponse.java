@@ -0,0 +1,29 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Services;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Public view of a service in the catalog.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServiceResponse {
+    private Long id;
+    private String nome;
+    private Integer durata;
+    private Float prezzo;
+    private String descrizione;
+
+    public static ServiceResponse from(Services service) {
+        return new ServiceResponse(
+                service.getId(),
+                service.getNome(),
+                service.getDurata(),
+                service.getPrezzo(),
+                service.getDescrizione());
+    }
+}
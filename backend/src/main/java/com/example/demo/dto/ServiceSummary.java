@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Services;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The service fields shown next to an appointment or a waiting-list entry.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ServiceSummary {
+    private Long id;
+    private String nome;
+    private Integer durata;
+    private Float prezzo;
+
+    public static ServiceSummary from(Services service) {
+        return service == null ? null
+                : new ServiceSummary(service.getId(), service.getNome(), service.getDurata(), service.getPrezzo());
+    }
+}
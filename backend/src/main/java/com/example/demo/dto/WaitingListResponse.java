@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.WaitingList;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lean view of a waiting-list entry.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitingListResponse {
+    private Long id;
+    private CustomerSummary customer;
+    private BarberSummary barber;
+    private ServiceSummary service;
+    private LocalDate dataRichiesta;
+    private LocalDateTime dataIscrizione;
+    private WaitingList.StatoListaAttesa stato;
+
+    public static WaitingListResponse from(WaitingList entry) {
+        return new WaitingListResponse(
+                entry.getId(),
+                CustomerSummary.from(entry.getCustomer()),
+                BarberSummary.from(entry.getBarber()),
+                ServiceSummary.from(entry.getService()),
+                entry.getDataRichiesta(),
+                entry.getDataIscrizione(),
+                entry.getStato());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.event;
+
+import java.time.LocalDate;
+
+/**
+ * Published whenever an appointment is created, moved or cancelled.
+ * Listeners use the barber/date pair to invalidate whatever they derived from that day.
+ *
+ * @param appointmentId the appointment id
+ * @param barberId      the barber whose day changed
+ * @param data          the day that changed
+ */
+public record AppointmentChangedEvent(Long appointmentId, Long barberId, LocalDate data) {
+}
@@ -0,0 +1,35 @@
+package com.example.demo.event;
+
+import com.example.demo.model.BookingOutbox;
+import com.example.demo.model.BookingOutbox.TipoEvento;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A committed booking event as delivered by the outbox relay. Delivery is at least once: the
+ * id is stable across redeliveries, so listeners that must not repeat a side effect can use it
+ * to deduplicate.
+ *
+ * @param id            the outbox id
+ * @param tipo          what happened to the appointment
+ * @param appointmentId the appointment id
+ * @param barberId      the barber id
+ * @param customerId    the customer id
+ * @param serviceId     the service id
+ * @param data          the day of the appointment
+ * @param orarioInizio  the start time of the appointment
+ * @param attore        the user who made the change
+ * @param dataCreazione when the event was committed
+ */
+public record BookingEvent(Long id, TipoEvento tipo, Long appointmentId, Long barberId, Long customerId,
+                           Long serviceId, LocalDate data, LocalTime orarioInizio, String attore,
+                           LocalDateTime dataCreazione) {
+
+    public static BookingEvent from(BookingOutbox outbox) {
+        return new BookingEvent(outbox.getId(), outbox.getTipo(), outbox.getAppointmentId(), outbox.getBarberId(),
+                outbox.getCustomerId(), outbox.getServiceId(), outbox.getData(), outbox.getOrarioInizio(),
+                outbox.getAttore(), outbox.getDataCreazione());
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.event;
+
+import java.util.List;
+
+/**
+ * Side effect of a booking (notification, analytics, ...) run by the outbox relay outside of the
+ * booking transaction. Every bean implementing this interface receives every event, in commit
+ * order per relay batch.
+ * <p>
+ * Listeners run inside the relay transaction that holds the batch claim, and their database writes
+ * join it. A listener must not throw out of a {@code @Transactional} method of its own: that marks
+ * the claim rollback-only and loses the checkpoint and the attempt count.
+ */
+public interface BookingEventListener {
+
+    /**
+     * Handles one event. Throwing makes the relay retry the event, and the ones after it, later.
+     *
+     * @param event the event
+     */
+    void onBookingEvent(BookingEvent event);
+
+    /**
+     * Handles a relay batch at once. Listeners that write in bulk override this; when it throws,
+     * the relay falls back to one event at a time, so the batch may be seen again in part.
+     *
+     * @param events the events, in id order
+     */
+    default void onBookingEvents(List<BookingEvent> events) {
+        events.forEach(this::onBookingEvent);
+    }
+}
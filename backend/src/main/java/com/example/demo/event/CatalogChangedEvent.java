@@ -0,0 +1,18 @@
+package com.example.demo.event;
+
+/**
+ * Published whenever one of the second-level cached catalogs (services, barbers, shop hours,
+ * shops, users) is written.
+ *
+ * @param catalog the catalog that changed
+ */
+public record CatalogChangedEvent(Catalog catalog) {
+
+    public enum Catalog {
+        SERVICES,
+        BARBERS,
+        BUSINESS_HOURS,
+        SHOPS,
+        USERS
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.filter;
+
+import java.util.Optional;
+
+/**
+ * Remembers the responses of requests sent with an {@code Idempotency-Key}, so that retries
+ * get the original answer instead of running the request again.
+ * <p>
+ * A reservation is a lease of {@code app.idempotency.lease}: if the request holding it never
+ * completes (crash, lost connection), a retry takes the key over once the lease has run out.
+ * Completed keys are kept for {@code app.idempotency.ttl}.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Claims a key for a request about to be executed.
+     *
+     * @param key         the scoped idempotency key
+     * @param fingerprint the hash of the request body
+     * @return true if the key was free or its lease expired, false if it is in flight or completed
+     */
+    boolean reserve(String key, String fingerprint);
+
+    /**
+     * Gets a reserved or completed key.
+     *
+     * @param key the scoped idempotency key
+     * @return the reservation, empty if the key is unknown or expired
+     */
+    Optional<Reservation> find(String key);
+
+    /**
+     * Stores the response of a reserved key.
+     *
+     * @param key      the scoped idempotency key
+     * @param response the response to replay
+     */
+    void complete(String key, StoredResponse response);
+
+    /**
+     * Frees a reserved key whose request failed, so that a retry runs it again.
+     *
+     * @param key the scoped idempotency key
+     */
+    void release(String key);
+
+    /**
+     * A key as stored: the body hash it was reserved with and, once completed, its response.
+     */
+    record Reservation(String fingerprint, StoredResponse response) {
+    }
+
+    /**
+     * A response as it will be replayed.
+     */
+    record StoredResponse(int status, String contentType, byte[] body) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Idempotency store kept in memory: least recently used keys are evicted beyond
+ * {@code app.idempotency.max-entries}, reservations expire after {@code app.idempotency.lease}
+ * and completed keys after {@code app.idempotency.ttl}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<String, Entry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                    @Value("${app.idempotency.lease:30s}") Duration lease,
+                                    @Value("${app.idempotency.max-entries:10000}") int maxEntries) {
+        this.ttl = ttl;
+        this.lease = lease;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized boolean reserve(String key, String fingerprint) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.isExpired()) {
+            return false;
+        }
+        entries.put(key, new Entry(new Reservation(fingerprint, null), System.nanoTime() + lease.toNanos()));
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<Reservation> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.reservation());
+    }
+
+    @Override
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        String fingerprint = entry != null ? entry.reservation().fingerprint() : null;
+        entries.put(key, new Entry(new Reservation(fingerprint, response), System.nanoTime() + ttl.toNanos()));
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        entries.remove(key);
+    }
+
+    private record Entry(Reservation reservation, long expiresAt) {
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.filter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Idempotency store persisted in the {@code idempotency_keys} table, for deployments with
+ * several instances or where retries must survive a restart. The primary key on the scoped
+ * key makes the reservation atomic across instances; an abandoned reservation is taken over
+ * with a conditional update on {@code reserved_at}, which only one instance can win.
+ * The table is created by {@code database/migration_idempotency_keys.sql}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "jdbc")
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final Duration PURGE_INTERVAL = Duration.ofMinutes(1);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${app.idempotency.lease:30s}")
+    private Duration lease;
+
+    private volatile Instant nextPurge = Instant.EPOCH;
+
+    @Override
+    public boolean reserve(String key, String fingerprint) {
+        Instant now = Instant.now();
+        if (now.isAfter(nextPurge)) {
+            nextPurge = now.plus(PURGE_INTERVAL);
+            jdbcTemplate.update("DELETE FROM idempotency_keys WHERE reserved_at < ?", Timestamp.from(now.minus(ttl)));
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, fingerprint, reserved_at) VALUES (?, ?, ?)",
+                    key, fingerprint, Timestamp.from(now));
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Take over a reservation whose lease ran out, or a completed key past its TTL
+            return jdbcTemplate.update("UPDATE idempotency_keys "
+                            + "SET fingerprint = ?, status = NULL, content_type = NULL, body = NULL, reserved_at = ? "
+                            + "WHERE idempotency_key = ? AND ((status IS NULL AND reserved_at < ?) OR reserved_at < ?)",
+                    fingerprint, Timestamp.from(now), key, Timestamp.from(now.minus(lease)), Timestamp.from(now.minus(ttl))) == 1;
+        }
+    }
+
+    @Override
+    public Optional<Reservation> find(String key) {
+        Instant now = Instant.now();
+        return jdbcTemplate.query(
+                "SELECT fingerprint, status, content_type, body FROM idempotency_keys "
+                        + "WHERE idempotency_key = ? AND reserved_at >= ? AND (status IS NOT NULL OR reserved_at >= ?)",
+                (rs, rowNum) -> {
+                    int status = rs.getInt("status");
+                    StoredResponse response = rs.wasNull() ? null
+                            : new StoredResponse(status, rs.getString("content_type"), rs.getBytes("body"));
+                    return new Reservation(rs.getString("fingerprint"), response);
+                },
+                key, Timestamp.from(now.minus(ttl)), Timestamp.from(now.minus(lease))).stream().findFirst();
+    }
+
+    @Override
+    public void complete(String key, StoredResponse response) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET status = ?, content_type = ?, body = ? WHERE idempotency_key = ?",
+                response.status(), response.contentType(), response.body(), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ?", key);
+    }
+}
@@ -3,6 +3,8 @@ package com.example.demo.filter;
 import com.example.demo.service.UserDetailsServiceImpl;
 import com.example.demo.util.JwtUtil;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,6 +32,9 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -39,13 +44,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         String username = null;
         String jwt = null;
 
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (JwtException e) {
-                logger.warn("Unable to parse JWT for request {}: {}", request.getRequestURI(), e.getMessage());
-            }
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+
+        jwt = authorizationHeader.substring(7);
+        try {
+            username = jwtUtil.extractUsername(jwt);
+        } catch (JwtException e) {
+            logger.warn("Unable to parse JWT for request {}: {}", request.getRequestURI(), e.getMessage());
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
@@ -60,11 +71,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                     usernamePasswordAuthenticationToken
                             .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                    outcome = "valid";
                 }
             } catch (JwtException e) {
                 logger.warn("Failed to validate JWT for user {} on {}: {}", username, request.getRequestURI(), e.getMessage());
             }
+        } else if (username != null) {
+            outcome = "skipped";
         }
+        sample.stop(meterRegistry.timer("security.jwt.verify", "outcome", outcome));
+
         chain.doFilter(request, response);
     }
 }
@@ -0,0 +1,164 @@
+package com.example.demo.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protects the database from request floods.
+ * <p>
+ * Every client has a token bucket: authenticated users are keyed by username, anonymous callers
+ * by IP address. An empty bucket answers 429 with {@code Retry-After}.
+ * <p>
+ * On top of that, when the slowest recent wait for a pooled connection exceeds
+ * {@code app.load-shedding.acquire-threshold}, non-essential reads (catalog and slot searches) are
+ * shed with 503. The shed fraction grows with the excess, so the pool recovers gradually instead
+ * of flapping. Writes, authentication and actuator calls are never shed.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BUCKETS = 50_000;
+    private static final long PRESSURE_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.ip.capacity:60}")
+    private int ipCapacity;
+
+    @Value("${app.rate-limit.ip.refill-per-second:1}")
+    private double ipRefillPerSecond;
+
+    @Value("${app.rate-limit.user.capacity:120}")
+    private int userCapacity;
+
+    @Value("${app.rate-limit.user.refill-per-second:2}")
+    private double userRefillPerSecond;
+
+    @Value("${app.load-shedding.acquire-threshold:200ms}")
+    private Duration acquireThreshold;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile double shedProbability;
+    private volatile long pressureSampledAt = System.nanoTime() - PRESSURE_SAMPLE_NANOS;
+    private final AtomicLong sweptAt = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || path(request).startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isSheddable(request) && ThreadLocalRandom.current().nextDouble() < shedProbability()) {
+            meterRegistry.counter("http.server.requests.rejected", "reason", "load_shedding").increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 2, "Servizio momentaneamente sovraccarico, riprovare tra poco");
+            return;
+        }
+
+        long waitNanos = bucket(request).tryConsume();
+        if (waitNanos > 0) {
+            meterRegistry.counter("http.server.requests.rejected", "reason", "rate_limit").increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter, "Troppe richieste, riprovare tra poco");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private TokenBucket bucket(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken);
+        if (buckets.size() >= MAX_BUCKETS) {
+            sweepIdleBuckets();
+        }
+        if (authenticated) {
+            return buckets.computeIfAbsent("user:" + authentication.getName(),
+                    key -> new TokenBucket(userCapacity, userRefillPerSecond));
+        }
+        return buckets.computeIfAbsent("ip:" + request.getRemoteAddr(),
+                key -> new TokenBucket(ipCapacity, ipRefillPerSecond));
+    }
+
+    /**
+     * Drops the buckets that are full again. A scan of the whole map is expensive, so while many
+     * clients stay active it runs at most once per sweep interval, on a single thread.
+     */
+    private void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        long last = sweptAt.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && sweptAt.compareAndSet(last, now)) {
+            buckets.values().removeIf(TokenBucket::isIdle);
+        }
+    }
+
+    private boolean isSheddable(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return false;
+        }
+        String path = path(request);
+        return path.startsWith("/services") || path.startsWith("/barbers")
+                || path.startsWith("/appointments/available-") || path.startsWith("/appointments/next-available");
+    }
+
+    /**
+     * Shed fraction derived from the max connection acquire time of the pools, resampled once per second.
+     */
+    private double shedProbability() {
+        long now = System.nanoTime();
+        if (now - pressureSampledAt < PRESSURE_SAMPLE_NANOS) {
+            return shedProbability;
+        }
+        pressureSampledAt = now;
+        double maxAcquireMillis = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            maxAcquireMillis = Math.max(maxAcquireMillis, timer.max(TimeUnit.MILLISECONDS));
+        }
+        double threshold = acquireThreshold.toMillis();
+        shedProbability = maxAcquireMillis <= threshold ? 0 : Math.min(0.9, (maxAcquireMillis - threshold) / threshold);
+        return shedProbability;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.filter;
+
+import com.example.demo.model.Shop;
+import com.example.demo.repository.ShopsRepository;
+import com.example.demo.util.ShopContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Selects the shop a request works on from the {@code X-Shop-Id} header. Requests without the
+ * header use the default shop, so single-shop clients keep working unchanged.
+ */
+@Component
+public class ShopFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Shop-Id";
+
+    @Autowired
+    private ShopsRepository shopsRepository;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            Optional<Shop> shop;
+            try {
+                // Shops are in the second-level cache, so this lookup does not reach the database
+                shop = shopsRepository.findById(Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                shop = Optional.empty();
+            }
+            if (shop.isEmpty() || Boolean.FALSE.equals(shop.get().getIsActive())) {
+                response.sendError(HttpStatus.BAD_REQUEST.value(), "Sede non trovata");
+                return;
+            }
+            ShopContext.set(shop.get().getId());
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ShopContext.clear();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.filter;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the token count and the refill time are swapped together with a
+ * compare-and-set, so concurrent requests of the same client never block each other.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, double tokensPerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if the token was taken, otherwise the nanoseconds until one is available
+     */
+    long tryConsume() {
+        while (true) {
+            State current = state.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.refilledAt()) * tokensPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Tells whether the bucket has been idle long enough to be full again, i.e. forgetting it changes nothing.
+     */
+    boolean isIdle() {
+        State current = state.get();
+        return current.tokens() + (System.nanoTime() - current.refilledAt()) * tokensPerNano >= capacity;
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * An appointment moved out of {@code appointments} by the archival job. Rows keep their
+ * original id and are never written again.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "appointments_archive", indexes = @Index(name = "idx_appointments_archive_customer",
+        columnList = "customer_id, data"))
+@NamedEntityGraph(name = AppointmentArchive.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("customer"), @NamedAttributeNode("barber"), @NamedAttributeNode("service")})
+public class AppointmentArchive {
+
+    /**
+     * Fetch plan for the customer history, which shows the customer, the barber and the service.
+     */
+    public static final String WITH_PARTIES = "AppointmentArchive.withParties";
+
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Users customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "barber_id", nullable = false)
+    private Barbers barber;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "service_id", nullable = false)
+    private Services service;
+
+    private LocalDate data;
+
+    private LocalTime orarioInizio;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stato", nullable = false, length = 20)
+    private Appointments.StatoAppuntamento stato;
+
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime dataArchiviazione;
+}
@@ -0,0 +1,46 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One entry of the append-only appointment history: what an appointment looked like right after
+ * a change, and who made it. Kept apart from {@code appointments} so the hot table stays narrow;
+ * the id is the one of the outbox event the entry was written from.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "appointment_events", indexes = @Index(name = "idx_appointment_events_appointment", columnList = "appointment_id, id"))
+public class AppointmentEvent {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long appointmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingOutbox.TipoEvento tipo;
+
+    private Long barberId;
+
+    private Long serviceId;
+
+    private Long customerId;
+
+    private LocalDate data;
+
+    private LocalTime orarioInizio;
+
+    private String attore;
+
+    @Column(nullable = false)
+    private LocalDateTime dataEvento;
+}
@@ -2,27 +2,44 @@ package com.example.demo.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Data
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_barber_day", columnList = "barber_id, data, stato, orario_inizio"),
+        @Index(name = "idx_appointments_data", columnList = "data")})
+@NamedEntityGraph(name = Appointments.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("customer"), @NamedAttributeNode("barber"), @NamedAttributeNode("service")})
 public class Appointments {
 
+    /**
+     * Fetch plan for list and detail views, which show the customer, the barber and the service.
+     */
+    public static final String WITH_PARTIES = "Appointments.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "customer_id", nullable = false)
     private Users customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "barber_id", nullable = false)
     private Barbers barber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "service_id", nullable = false)
     private Services service;
 
@@ -34,6 +51,10 @@ public class Appointments {
     @Column(name = "stato", nullable = false, length = 20)
     private StatoAppuntamento stato;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public enum StatoAppuntamento {
         CONFERMATO,
         PENDING,
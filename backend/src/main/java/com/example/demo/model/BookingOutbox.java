@@ -0,0 +1,62 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A booking event written in the same transaction as the appointment it describes, and relayed
+ * to the {@link com.example.demo.event.BookingEventListener}s after the commit.
+ */
+@Data
+@Entity
+@Table(name = "booking_outbox", indexes = @Index(name = "idx_booking_outbox_pending", columnList = "data_pubblicazione, id"))
+public class BookingOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoEvento tipo;
+
+    @Column(nullable = false)
+    private Long appointmentId;
+
+    private Long barberId;
+
+    private Long customerId;
+
+    private Long serviceId;
+
+    private LocalDate data;
+
+    private LocalTime orarioInizio;
+
+    /**
+     * The user who made the change, or {@code sistema} for unauthenticated and background changes.
+     */
+    private String attore;
+
+    @Column(nullable = false)
+    private LocalDateTime dataCreazione;
+
+    /**
+     * Set once every listener has handled the event; null while it is pending.
+     */
+    private LocalDateTime dataPubblicazione;
+
+    @Column(nullable = false, columnDefinition = "int default 0")
+    private int tentativi;
+
+    public enum TipoEvento {
+        PRENOTATO,
+        SPOSTATO,
+        ANNULLATO,
+        LISTA_ATTESA_PROMOSSA
+    }
+}
@@ -4,12 +4,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalTime;
 
 @Data
 @Entity
-@Table(name = "shop_hours")
+@Table(name = "shop_hours", uniqueConstraints = @UniqueConstraint(columnNames = {"shop_id", "giorno"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class BusinessHours {
 
     @Id
@@ -20,9 +24,12 @@ public class BusinessHours {
      * Giorno della settimana espresso come intero.
      * 0 = Domenica, 1 = Lunedì, ..., 6 = Sabato
      */
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private Integer giorno;
 
+    @Column(name = "shop_id", nullable = false, columnDefinition = "bigint default 1")
+    private Long shopId = Shop.DEFAULT_ID;
+
     @Column(name = "is_chiuso", nullable = false)
     @JsonIgnore
     private boolean chiuso;
@@ -2,10 +2,14 @@ package com.example.demo.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "services")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Services {
 
     @Id
@@ -19,4 +23,7 @@ public class Services {
     private Float prezzo;
 
     private String descrizione;
+
+    @Column(name = "shop_id", nullable = false, columnDefinition = "bigint default 1")
+    private Long shopId = Shop.DEFAULT_ID;
 }
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * A location of the company. Barbers, services and opening hours belong to one shop; appointments
+ * belong to the shop of their barber.
+ */
+@Data
+@Entity
+@Table(name = "shops")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+public class Shop {
+
+    /**
+     * The shop that requests without {@code X-Shop-Id} and rows created before multi-shop refer to.
+     */
+    public static final long DEFAULT_ID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String nome;
+
+    private String indirizzo;
+
+    private Boolean isActive;
+}
@@ -2,27 +2,43 @@ package com.example.demo.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "waiting_list")
+@Table(name = "waiting_list", indexes = @Index(name = "idx_waiting_list_data_richiesta",
+        columnList = "data_richiesta"))
+@NamedEntityGraph(name = WaitingList.WITH_PARTIES, attributeNodes = {
+        @NamedAttributeNode("customer"), @NamedAttributeNode("barber"), @NamedAttributeNode("service")})
 public class WaitingList {
 
+    /**
+     * Fetch plan for list views, which show the customer, the barber and the service.
+     */
+    public static final String WITH_PARTIES = "WaitingList.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "customer_id", nullable = false)
     private Users customer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "barber_id", nullable = false)
     private Barbers barber;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "service_id", nullable = false)
     private Services service;
 
@@ -33,6 +49,10 @@ public class WaitingList {
     @Enumerated(EnumType.STRING)
     private StatoListaAttesa stato;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     public enum StatoListaAttesa {
         IN_ATTESA,
         NOTIFICATO,
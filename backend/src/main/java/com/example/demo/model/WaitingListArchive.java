@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A waiting-list entry moved out of {@code waiting_list} by the archival job. Kept for
+ * reporting only, so the parties are plain ids.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "waiting_list_archive")
+public class WaitingListArchive {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Long barberId;
+
+    @Column(nullable = false)
+    private Long serviceId;
+
+    private LocalDate dataRichiesta;
+
+    private LocalDateTime dataIscrizione;
+
+    @Enumerated(EnumType.STRING)
+    private WaitingList.StatoListaAttesa stato;
+
+    private long version;
+
+    @Column(nullable = false)
+    private LocalDateTime dataArchiviazione;
+}
@@ -0,0 +1,15 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AppointmentArchive;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppointmentArchiveRepository extends JpaRepository<AppointmentArchive, Long> {
+
+    @EntityGraph(AppointmentArchive.WITH_PARTIES)
+    List<AppointmentArchive> findByCustomerIdOrderByDataAscOrarioInizioAsc(Long customerId);
+}
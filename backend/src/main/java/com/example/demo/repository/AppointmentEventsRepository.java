@@ -0,0 +1,13 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AppointmentEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppointmentEventsRepository extends JpaRepository<AppointmentEvent, Long> {
+
+    List<AppointmentEvent> findByAppointmentIdOrderByIdAsc(Long appointmentId);
+}
@@ -1,16 +1,107 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Appointments;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AppointmentsRepository extends JpaRepository<Appointments, Long> {
+    @EntityGraph(Appointments.WITH_PARTIES)
     List<Appointments> findByCustomerId(Long customerId);
+
+    @EntityGraph(Appointments.WITH_PARTIES)
     List<Appointments> findByBarberId(Long barberId);
-    List<Appointments> findByBarberIdAndDataAndStato(Long barberId, LocalDate data, Appointments.StatoAppuntamento stato);
+
+    @EntityGraph(Appointments.WITH_PARTIES)
     List<Appointments> findByDataAndStato(LocalDate data, Appointments.StatoAppuntamento stato);
+
+    @Override
+    @EntityGraph(Appointments.WITH_PARTIES)
+    List<Appointments> findAll();
+
+    @Query("select a.id as id, a.barber.id as barberId, a.data as data, a.orarioInizio as orarioInizio, s.durata as durata "
+            + "from Appointments a join a.service s "
+            + "where a.barber.id = :barberId and a.data = :data and a.stato = :stato")
+    List<BookedSlot> findBookedSlots(@Param("barberId") Long barberId, @Param("data") LocalDate data,
+                                     @Param("stato") Appointments.StatoAppuntamento stato);
+
+    @Query("select a.id as id, a.barber.id as barberId, a.data as data, a.orarioInizio as orarioInizio, s.durata as durata "
+            + "from Appointments a join a.service s "
+            + "where a.barber.id = :barberId and a.data in :dates and a.stato = :stato")
+    List<BookedSlot> findBookedSlotsOnDates(@Param("barberId") Long barberId, @Param("dates") Collection<LocalDate> dates,
+                                            @Param("stato") Appointments.StatoAppuntamento stato);
+
+    @Query("select a.id as id, a.barber.id as barberId, a.data as data, a.orarioInizio as orarioInizio, s.durata as durata "
+            + "from Appointments a join a.service s "
+            + "where a.barber.id in :barberIds and a.data between :from and :to and a.stato = :stato")
+    List<BookedSlot> findBookedSlotsBetween(@Param("barberIds") Collection<Long> barberIds, @Param("from") LocalDate from,
+                                            @Param("to") LocalDate to, @Param("stato") Appointments.StatoAppuntamento stato);
+
+    /**
+     * Tells whether a booking of the barber overlaps the block [start, end). The start column is
+     * compared directly, so the barber-day index narrows the scan before durations are added.
+     *
+     * @param end         the end of the block, which must not pass midnight
+     * @param startMinute the start of the block, in minutes from midnight
+     * @param excludedId  a booking to ignore, e.g. the one being moved, or null
+     */
+    @Query("select case when exists (select 1 from Appointments a join a.service s "
+            + "where a.barber.id = :barberId and a.data = :data and a.stato = :stato "
+            + "and a.orarioInizio < :end "
+            + "and extract(hour from a.orarioInizio) * 60 + extract(minute from a.orarioInizio) + s.durata > :startMinute "
+            + "and (:excludedId is null or a.id <> :excludedId)) then true else false end")
+    boolean existsOverlap(@Param("barberId") Long barberId, @Param("data") LocalDate data,
+                          @Param("stato") Appointments.StatoAppuntamento stato, @Param("end") LocalTime end,
+                          @Param("startMinute") int startMinute, @Param("excludedId") Long excludedId);
+
+    @Query("select a.data as data, a.orarioInizio as orarioInizio, s.durata as durata, count(a) as prenotazioni "
+            + "from Appointments a join a.service s join a.barber b "
+            + "where b.shopId = :shopId and a.data between :from and :to and a.stato = :stato "
+            + "group by a.data, a.orarioInizio, s.durata")
+    List<SlotLoad> aggregateLoad(@Param("shopId") Long shopId, @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                 @Param("stato") Appointments.StatoAppuntamento stato);
+
+    @EntityGraph(Appointments.WITH_PARTIES)
+    Optional<Appointments> findDetailedById(Long id);
+
+    @EntityGraph(Appointments.WITH_PARTIES)
+    List<Appointments> findByBarberShopIdAndDataAndStatoOrderByOrarioInizioAsc(Long shopId, LocalDate data,
+                                                                         Appointments.StatoAppuntamento stato);
+
+    /**
+     * The columns a slot check needs from a booking: who it blocks, when it starts and how long it lasts.
+     */
+    interface BookedSlot {
+        Long getId();
+
+        Long getBarberId();
+
+        LocalDate getData();
+
+        LocalTime getOrarioInizio();
+
+        Integer getDurata();
+    }
+
+    /**
+     * Number of bookings sharing a day, a start time and a duration.
+     */
+    interface SlotLoad {
+        LocalDate getData();
+
+        LocalTime getOrarioInizio();
+
+        Integer getDurata();
+
+        Long getPrenotazioni();
+    }
 }
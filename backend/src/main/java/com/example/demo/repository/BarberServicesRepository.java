@@ -1,7 +1,13 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.BarberServices;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,9 +15,26 @@ import java.util.List;
 @Repository
 public interface BarberServicesRepository extends JpaRepository<BarberServices, Long> {
 
+    @EntityGraph(attributePaths = "service")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<BarberServices> findByBarberId(Long barberId);
 
+    @EntityGraph(attributePaths = "barber")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<BarberServices> findByServiceId(Long serviceId);
 
     void deleteByBarberId(Long barberId);
+
+    @Query("select bs.barber.id as barberId, bs.service.id as serviceId from BarberServices bs "
+            + "where bs.barber.shopId = :shopId")
+    List<ServiceLink> findLinksByShopId(@Param("shopId") Long shopId);
+
+    /**
+     * A barber-service association reduced to its two keys.
+     */
+    interface ServiceLink {
+        Long getBarberId();
+
+        Long getServiceId();
+    }
 }
@@ -1,9 +1,46 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.Barbers;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BarbersRepository extends JpaRepository<Barbers, Long> {
+
+    /**
+     * Loads a barber holding a write lock on its row, which serializes bookings that must claim several slots at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Barbers> findLockedById(Long id);
+
+    List<Barbers> findByShopId(Long shopId);
+
+    long countByShopId(Long shopId);
+
+    long countByShopIdAndIsActiveFalse(Long shopId);
+
+    /**
+     * Checks with a single statement that the barber, customer and service of a booking all exist,
+     * and that the service is offered by the barber's shop, so they can be attached as references
+     * instead of being loaded one by one.
+     */
+    @Query("select case when count(b) > 0 then true else false end from Barbers b, Users u, Services s "
+            + "where b.id = :barberId and u.id = :customerId and s.id = :serviceId and s.shopId = b.shopId")
+    boolean existsBookingReferences(@Param("barberId") Long barberId, @Param("customerId") Long customerId,
+                                    @Param("serviceId") Long serviceId);
+
+    /**
+     * Counts the given services that exist in the barber's shop, or returns zero when the barber does not exist.
+     */
+    @Query("select count(s) from Barbers b, Services s where b.id = :barberId and s.id in :serviceIds and s.shopId = b.shopId")
+    long countServicesForExistingBarber(@Param("barberId") Long barberId,
+                                        @Param("serviceIds") Collection<Long> serviceIds);
 }
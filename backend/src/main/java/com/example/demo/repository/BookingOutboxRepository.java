@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.BookingOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingOutboxRepository extends JpaRepository<BookingOutbox, Long> {
+
+    // LockOptions.SKIP_LOCKED: FOR UPDATE SKIP LOCKED on MySQL 8
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Claims the oldest pending events: the rows stay locked until the caller's transaction ends and
+     * rows locked by another node are skipped, so each event is delivered by one node at a time.
+     * Read-write so that it reads the primary: a lagging replica would hide committed events.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Transactional(propagation = Propagation.MANDATORY)
+    List<BookingOutbox> findByDataPubblicazioneIsNullOrderByIdAsc(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("update BookingOutbox o set o.dataPubblicazione = :at where o.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Transactional
+    @Query("update BookingOutbox o set o.tentativi = o.tentativi + 1 where o.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("delete from BookingOutbox o where o.dataPubblicazione < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,7 +1,12 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.BusinessHours;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +14,19 @@ import java.util.Optional;
 
 @Repository
 public interface BusinessHoursRepository extends JpaRepository<BusinessHours, Long> {
-    Optional<BusinessHours> findByGiorno(Integer giorno);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<BusinessHours> findByShopIdAndGiorno(Long shopId, Integer giorno);
 
-    List<BusinessHours> findAllByGiorno(Integer giorno);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<BusinessHours> findAllByShopIdAndGiorno(Long shopId, Integer giorno);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<BusinessHours> findByShopId(Long shopId);
+
+    /**
+     * Gets the hours of a weekday in the shop of a barber, without loading the barber.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select h from BusinessHours h, Barbers b where b.id = :barberId and h.shopId = b.shopId and h.giorno = :giorno")
+    Optional<BusinessHours> findForBarber(@Param("barberId") Long barberId, @Param("giorno") Integer giorno);
 }
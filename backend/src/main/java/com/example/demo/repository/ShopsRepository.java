@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Shop;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ShopsRepository extends JpaRepository<Shop, Long> {
+    List<Shop> findByIsActiveTrueOrderByIdAsc();
+}
@@ -1,6 +1,7 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.WaitingList;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,13 +11,16 @@ import java.util.Optional;
 
 @Repository
 public interface WaitingListRepository extends JpaRepository<WaitingList, Long> {
+    @EntityGraph(WaitingList.WITH_PARTIES)
     List<WaitingList> findByBarberIdAndDataRichiestaAndStatoOrderByDataIscrizioneAsc(
             Long barberId, LocalDate dataRichiesta, WaitingList.StatoListaAttesa stato);
     
+    @EntityGraph(WaitingList.WITH_PARTIES)
     List<WaitingList> findByCustomerIdAndStato(Long customerId, WaitingList.StatoListaAttesa stato);
     
     Optional<WaitingList> findFirstByBarberIdAndServiceIdAndDataRichiestaAndStatoOrderByDataIscrizioneAsc(
             Long barberId, Long serviceId, LocalDate dataRichiesta, WaitingList.StatoListaAttesa stato);
     
+    @EntityGraph(WaitingList.WITH_PARTIES)
     List<WaitingList> findByCustomerId(Long customerId);
 }
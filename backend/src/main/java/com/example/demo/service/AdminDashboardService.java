@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.ScheduleBoard;
+import com.example.demo.dto.AdminBarberResponse;
+import com.example.demo.dto.AdminDashboardResponse;
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.dto.BusinessHoursResponse;
+import com.example.demo.dto.ServiceResponse;
+import com.example.demo.model.Barbers;
+import com.example.demo.repository.BarberServicesRepository;
+import com.example.demo.repository.BarbersRepository;
+import com.example.demo.repository.ServicesRepository;
+import com.example.demo.util.ShopContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class AdminDashboardService {
+
+    @Autowired
+    private BarbersRepository barbersRepository;
+
+    @Autowired
+    private BarberServicesRepository barberServicesRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private ScheduleBoard scheduleBoard;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Autowired
+    @Qualifier("dashboardExecutor")
+    private Executor dashboardExecutor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Builds the admin dashboard of the current shop: barbers with their service ids, the service catalog, the weekly
+     * shop hours and the confirmed appointments of a day. The five set-based queries are independent,
+     * so they run in parallel on the bounded dashboard executor.
+     *
+     * @param date the agenda day
+     * @return the dashboard payload
+     */
+    public AdminDashboardResponse getDashboard(LocalDate date) {
+        // The executor threads do not see the request's shop, so it is captured here
+        long shopId = ShopContext.currentShopId();
+        CompletableFuture<List<Barbers>> barbers = readAsync(() -> barbersRepository.findByShopId(shopId));
+        CompletableFuture<Map<Long, List<Long>>> serviceIdsByBarber = readAsync(() ->
+                barberServicesRepository.findLinksByShopId(shopId).stream()
+                        .collect(Collectors.groupingBy(
+                                BarberServicesRepository.ServiceLink::getBarberId,
+                                Collectors.mapping(BarberServicesRepository.ServiceLink::getServiceId, Collectors.toList()))));
+        CompletableFuture<List<ServiceResponse>> services = readAsync(() ->
+                servicesRepository.findByShopId(shopId).stream()
+                        .map(ServiceResponse::from)
+                        .collect(Collectors.toList()));
+        CompletableFuture<List<BusinessHoursResponse>> businessHours = readAsync(() ->
+                businessHoursService.getBusinessHours(shopId).stream()
+                        .map(BusinessHoursResponse::from)
+                        .collect(Collectors.toList()));
+        CompletableFuture<List<AppointmentResponse>> appointments = readAsync(() -> scheduleBoard.getDay(shopId, date));
+
+        Map<Long, List<Long>> links = await(serviceIdsByBarber);
+        List<AdminBarberResponse> barberResponses = await(barbers).stream()
+                .sorted(Comparator.comparing(Barbers::getId))
+                .map(barber -> AdminBarberResponse.from(barber, links.getOrDefault(barber.getId(), List.of())))
+                .collect(Collectors.toList());
+
+        return new AdminDashboardResponse(date, barberResponses, await(services), await(businessHours), await(appointments));
+    }
+
+    private <T> CompletableFuture<T> readAsync(Supplier<T> query) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return CompletableFuture.supplyAsync(() -> readOnly.execute(status -> query.get()), dashboardExecutor);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
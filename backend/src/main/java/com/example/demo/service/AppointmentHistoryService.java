@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentTimelineResponse;
+import com.example.demo.event.BookingEvent;
+import com.example.demo.event.BookingEventListener;
+import com.example.demo.model.AppointmentEvent;
+import com.example.demo.model.Appointments;
+import com.example.demo.model.BookingOutbox;
+import com.example.demo.repository.AppointmentArchiveRepository;
+import com.example.demo.repository.AppointmentEventsRepository;
+import com.example.demo.repository.AppointmentsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only history of the appointments. The outbox relay hands over its batches, which are
+ * written with one JDBC batch each, off the booking path; the timeline of an appointment is
+ * rebuilt by replaying its entries.
+ */
+@Service
+public class AppointmentHistoryService implements BookingEventListener {
+
+    private static final String INSERT = "INSERT INTO appointment_events "
+            + "(id, appointment_id, tipo, barber_id, service_id, customer_id, data, orario_inizio, attore, data_evento) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AppointmentEventsRepository appointmentEventsRepository;
+
+    @Autowired
+    private AppointmentsRepository appointmentsRepository;
+
+    @Autowired
+    private AppointmentArchiveRepository appointmentArchiveRepository;
+
+    @Override
+    public void onBookingEvent(BookingEvent event) {
+        onBookingEvents(List.of(event));
+    }
+
+    @Override
+    public void onBookingEvents(List<BookingEvent> events) {
+        // The relay delivers at least once: entries already written are skipped, never rewritten
+        String placeholders = events.stream().map(event -> "?").collect(Collectors.joining(", "));
+        Set<Long> written = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM appointment_events WHERE id IN (" + placeholders + ")",
+                Long.class, events.stream().map(BookingEvent::id).toArray()));
+        List<BookingEvent> fresh = events.stream()
+                .filter(event -> !written.contains(event.id()))
+                .toList();
+        if (fresh.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, fresh, fresh.size(), (ps, event) -> {
+            ps.setLong(1, event.id());
+            ps.setLong(2, event.appointmentId());
+            ps.setString(3, event.tipo().name());
+            ps.setObject(4, event.barberId());
+            ps.setObject(5, event.serviceId());
+            ps.setObject(6, event.customerId());
+            ps.setObject(7, event.data());
+            ps.setObject(8, event.orarioInizio());
+            ps.setString(9, event.attore());
+            ps.setTimestamp(10, Timestamp.valueOf(event.dataCreazione()));
+        });
+    }
+
+    /**
+     * Gets the timeline of an appointment. Changes made before the history existed are not in it.
+     *
+     * @param appointmentId the appointment id
+     * @return the timeline, empty if the appointment is unknown
+     */
+    @Transactional(readOnly = true)
+    public Optional<AppointmentTimelineResponse> getTimeline(Long appointmentId) {
+        List<AppointmentEvent> events = appointmentEventsRepository.findByAppointmentIdOrderByIdAsc(appointmentId);
+        if (events.isEmpty() && !appointmentsRepository.existsById(appointmentId)
+                && !appointmentArchiveRepository.existsById(appointmentId)) {
+            return Optional.empty();
+        }
+
+        List<AppointmentTimelineResponse.Step> steps = new ArrayList<>();
+        AppointmentTimelineResponse.Step previous = null;
+        for (AppointmentEvent event : events) {
+            Appointments.StatoAppuntamento stato = event.getTipo() == BookingOutbox.TipoEvento.ANNULLATO
+                    ? Appointments.StatoAppuntamento.ANNULLATO
+                    : Appointments.StatoAppuntamento.CONFERMATO;
+            AppointmentTimelineResponse.Step step = new AppointmentTimelineResponse.Step(
+                    event.getTipo().name(), event.getDataEvento(), event.getAttore(), stato.name(),
+                    event.getBarberId(), event.getServiceId(), event.getData(), event.getOrarioInizio(), List.of());
+            if (previous != null) {
+                step.setModifiche(changes(previous, step));
+            }
+            steps.add(step);
+            previous = step;
+        }
+        return Optional.of(new AppointmentTimelineResponse(appointmentId, steps));
+    }
+
+    private List<String> changes(AppointmentTimelineResponse.Step before, AppointmentTimelineResponse.Step after) {
+        List<String> changes = new ArrayList<>();
+        if (!Objects.equals(before.getStato(), after.getStato())) {
+            changes.add("stato");
+        }
+        if (!Objects.equals(before.getBarberId(), after.getBarberId())) {
+            changes.add("barberId");
+        }
+        if (!Objects.equals(before.getServiceId(), after.getServiceId())) {
+            changes.add("serviceId");
+        }
+        if (!Objects.equals(before.getData(), after.getData())) {
+            changes.add("data");
+        }
+        if (!Objects.equals(before.getOrarioInizio(), after.getOrarioInizio())) {
+            changes.add("orarioInizio");
+        }
+        return changes;
+    }
+}
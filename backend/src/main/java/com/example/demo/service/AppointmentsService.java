@@ -2,23 +2,56 @@ package com.example.demo.service;
 
 import com.example.demo.dto.AppointmentRequest;
 import com.example.demo.dto.AvailableSlotResponse;
+import com.example.demo.dto.BlockAppointmentRequest;
+import com.example.demo.dto.BarberSummary;
+import com.example.demo.dto.NextAvailableSlotResponse;
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.dto.RecurringAppointmentRequest;
+import com.example.demo.dto.RecurringAppointmentResponse;
+import com.example.demo.event.AppointmentChangedEvent;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import com.example.demo.repository.AppointmentsRepository.BookedSlot;
+import com.example.demo.util.TransactionMemo;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class AppointmentsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentsService.class);
+
+    private static final int MAX_OCCURRENCES = 52;
+
+    private static final int MAX_NEXT_AVAILABLE = 20;
+
+    private static final int SEARCH_CHUNK_DAYS = 7;
+
     @Autowired
     private AppointmentsRepository appointmentsRepository;
 
@@ -37,53 +70,326 @@ public class AppointmentsService {
     @Autowired
     private BusinessHoursRepository businessHoursRepository;
 
+    @Autowired
+    private BarberServicesRepository barberServicesRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookingOutboxService bookingOutboxService;
+
+    @Autowired
+    private AppointmentArchiveRepository appointmentArchiveRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.booking.slot-step-minutes:15}")
+    private int slotStepMinutes;
+
+    @Value("${app.booking.next-available-days:60}")
+    private int nextAvailableDays;
+
     /**
-     * Creates a new appointment.
+     * Creates a new appointment. The barber row is locked before the overlap check, so two
+     * bookings for the same barber cannot both pass it, and the locked row is the barber of the
+     * appointment. Only the customer is attached by reference, after one existence query.
      *
      * @param request the appointment request
      * @return the created appointment
      */
+    @Timed(value = "booking.appointment.create", description = "Time to validate and book an appointment")
     @Transactional
     public Appointments createAppointment(AppointmentRequest request) {
-        if (!isSlotAvailable(request.getBarberId(), request.getData(), request.getOrarioInizio(), request.getServiceId())) {
+        Barbers barber = lockBarber(request.getBarberId());
+        if (!isSlotAvailable(request.getBarberId(), request.getData(), request.getOrarioInizio(), request.getServiceId(), null)) {
+            meterRegistry.counter("booking.appointment.conflicts").increment();
             throw new RuntimeException("Slot non disponibile");
         }
 
-        Users customer = getEntityById(usersRepository, request.getCustomerId(), "Cliente non trovato");
-        Barbers barber = getEntityById(barbersRepository, request.getBarberId(), "Barbiere non trovato");
-        Services service = getEntityById(servicesRepository, request.getServiceId(), "Servizio non trovato");
+        requireBookingReferences(request.getCustomerId(), request.getBarberId(), request.getServiceId());
 
         Appointments appointment = new Appointments();
-        appointment.setCustomer(customer);
+        appointment.setCustomer(usersRepository.getReferenceById(request.getCustomerId()));
         appointment.setBarber(barber);
-        appointment.setService(service);
+        appointment.setService(findService(request.getServiceId()));
         appointment.setData(request.getData());
         appointment.setOrarioInizio(request.getOrarioInizio());
         appointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
 
-        return appointmentsRepository.save(appointment);
+        Appointments saved = appointmentsRepository.save(appointment);
+        bookingOutboxService.record(BookingOutbox.TipoEvento.PRENOTATO, saved);
+        evictDay(request.getBarberId(), request.getData());
+        publishChanged(saved, request.getBarberId(), request.getData());
+        return saved;
+    }
+
+    /**
+     * Books several services back to back as one contiguous block. The barber row is locked
+     * while the block is checked and saved, so two blocks for the same barber cannot interleave.
+     *
+     * @param request the block appointment request
+     * @return the created appointments, one per service, in order
+     */
+    @Timed(value = "booking.appointment.block", description = "Time to validate and book a multi-service block")
+    @Transactional
+    public List<Appointments> createBlockAppointment(BlockAppointmentRequest request) {
+        Barbers barber = lockBarber(request.getBarberId());
+        Users customer = findCustomer(request.getCustomerId());
+        List<Services> services = getServicesInOrder(request.getServiceIds());
+        int totalDuration = services.stream().mapToInt(Services::getDurata).sum();
+
+        if (!dayTimeline(barber.getId(), request.getData()).fits(request.getOrarioInizio(), totalDuration)) {
+            meterRegistry.counter("booking.appointment.conflicts").increment();
+            throw new RuntimeException("Slot non disponibile");
+        }
+
+        List<Appointments> block = new ArrayList<>();
+        LocalTime orarioInizio = request.getOrarioInizio();
+        for (Services service : services) {
+            Appointments appointment = new Appointments();
+            appointment.setCustomer(customer);
+            appointment.setBarber(barber);
+            appointment.setService(service);
+            appointment.setData(request.getData());
+            appointment.setOrarioInizio(orarioInizio);
+            appointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
+            block.add(appointment);
+            orarioInizio = orarioInizio.plusMinutes(service.getDurata());
+        }
+
+        List<Appointments> saved = appointmentsRepository.saveAll(block);
+        evictDay(barber.getId(), request.getData());
+        saved.forEach(appointment -> {
+            bookingOutboxService.record(BookingOutbox.TipoEvento.PRENOTATO, appointment);
+            publishChanged(appointment, barber.getId(), request.getData());
+        });
+        return saved;
+    }
+
+    /**
+     * Gets the start times at which several services fit back to back for a barber on a date.
+     *
+     * @param barberId   the barber id
+     * @param serviceIds the service ids
+     * @param date       the date
+     * @return the list of available blocks
+     */
+    @Timed(value = "booking.blocks.search", description = "Time to compute the available multi-service blocks of a barber-day")
+    @Transactional(readOnly = true)
+    public List<AvailableSlotResponse> getAvailableBlocks(Long barberId, List<Long> serviceIds, LocalDate date) {
+        int totalDuration = getServicesInOrder(serviceIds).stream().mapToInt(Services::getDurata).sum();
+
+        BusinessHours businessHours = findBusinessHours(barberId, date);
+        if (businessHours == null || !businessHours.isAperto()) {
+            return new ArrayList<>();
+        }
+
+        // Same grid as getAvailableSlots, so a block can start wherever a single service could
+        int step = slotStepMinutes > 0 ? slotStepMinutes : totalDuration;
+        return dayTimeline(barberId, date).starts(totalDuration, DayTimeline.opening(businessHours), step).stream()
+                .map(start -> new AvailableSlotResponse(start, start.plusMinutes(totalDuration), true))
+                .collect(Collectors.toList());
+    }
+
+    private List<Services> getServicesInOrder(List<Long> serviceIds) {
+        if (serviceIds == null || serviceIds.isEmpty()) {
+            throw new IllegalArgumentException("Selezionare almeno un servizio");
+        }
+        Map<Long, Services> byId = servicesRepository.findAllById(serviceIds).stream()
+                .collect(Collectors.toMap(Services::getId, Function.identity()));
+        List<Services> services = new ArrayList<>();
+        for (Long serviceId : serviceIds) {
+            Services service = byId.get(serviceId);
+            if (service == null) {
+                throw new RuntimeException("Servizio non trovato");
+            }
+            services.add(service);
+        }
+        return services;
+    }
+
+    private DayTimeline dayTimeline(Long barberId, LocalDate date) {
+        return DayTimeline.of(findBusinessHours(barberId, date), findConfirmedDay(barberId, date));
+    }
+
+    /**
+     * Books the same barber, service and time every few weeks. The whole series is checked
+     * against the barber's bookings with a single query, under the barber lock; the free occurrences are saved together
+     * and the conflicting ones are left out.
+     *
+     * @param request the recurring appointment request
+     * @return the booked occurrences and the conflicting dates
+     */
+    @Timed(value = "booking.appointment.recurring", description = "Time to validate and book a recurring series")
+    @Transactional
+    public RecurringAppointmentResponse createRecurringAppointments(RecurringAppointmentRequest request) {
+        if (request.getData() == null || request.getOrarioInizio() == null) {
+            throw new IllegalArgumentException("Data e orario della prima occorrenza obbligatori");
+        }
+        if (request.getIntervalloSettimane() < 1) {
+            throw new IllegalArgumentException("L'intervallo deve essere di almeno una settimana");
+        }
+        if (request.getOccorrenze() < 1 || request.getOccorrenze() > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("Il numero di occorrenze deve essere compreso tra 1 e " + MAX_OCCURRENCES);
+        }
+
+        Barbers barber = lockBarber(request.getBarberId());
+        Users customer = findCustomer(request.getCustomerId());
+        Services service = findService(request.getServiceId());
+
+        List<LocalDate> dates = new ArrayList<>();
+        for (int i = 0; i < request.getOccorrenze(); i++) {
+            dates.add(request.getData().plusWeeks((long) i * request.getIntervalloSettimane()));
+        }
+
+        Map<Integer, BusinessHours> hoursByDay = businessHoursRepository.findByShopId(barber.getShopId()).stream()
+                .collect(Collectors.toMap(BusinessHours::getGiorno, Function.identity(), (first, second) -> first));
+        Map<LocalDate, List<BookedSlot>> bookedByDate = appointmentsRepository
+                .findBookedSlotsOnDates(barber.getId(), dates, Appointments.StatoAppuntamento.CONFERMATO)
+                .stream()
+                .collect(Collectors.groupingBy(BookedSlot::getData));
+
+        List<Appointments> series = new ArrayList<>();
+        List<LocalDate> conflicts = new ArrayList<>();
+        for (LocalDate date : dates) {
+            BusinessHours businessHours = hoursByDay.get(date.getDayOfWeek().getValue() % 7);
+            if (!fitsInDay(request.getOrarioInizio(), service.getDurata(), businessHours,
+                    bookedByDate.getOrDefault(date, List.of()))) {
+                conflicts.add(date);
+                continue;
+            }
+            Appointments appointment = new Appointments();
+            appointment.setCustomer(customer);
+            appointment.setBarber(barber);
+            appointment.setService(service);
+            appointment.setData(date);
+            appointment.setOrarioInizio(request.getOrarioInizio());
+            appointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
+            series.add(appointment);
+        }
+        if (!conflicts.isEmpty()) {
+            meterRegistry.counter("booking.appointment.conflicts").increment(conflicts.size());
+        }
+
+        List<Appointments> saved = appointmentsRepository.saveAll(series);
+        saved.forEach(appointment -> {
+            bookingOutboxService.record(BookingOutbox.TipoEvento.PRENOTATO, appointment);
+            evictDay(barber.getId(), appointment.getData());
+            publishChanged(appointment, barber.getId(), appointment.getData());
+        });
+        return new RecurringAppointmentResponse(
+                saved.stream().map(AppointmentResponse::from).collect(Collectors.toList()),
+                conflicts);
+    }
+
+    private void publishChanged(Appointments appointment, Long barberId, LocalDate data) {
+        eventPublisher.publishEvent(new AppointmentChangedEvent(appointment.getId(), barberId, data));
     }
 
     private <T, ID> T getEntityById(JpaRepository<T, ID> repository, ID id, String errorMessage) {
         return repository.findById(id).orElseThrow(() -> new RuntimeException(errorMessage));
     }
 
+    /**
+     * Checks that the customer, barber and service exist with one query, so the customer can be
+     * attached by reference; the specific lookups only run to name the missing one.
+     */
+    private void requireBookingReferences(Long customerId, Long barberId, Long serviceId) {
+        if (barbersRepository.existsBookingReferences(barberId, customerId, serviceId)) {
+            return;
+        }
+        if (!usersRepository.existsById(customerId)) {
+            throw new RuntimeException("Cliente non trovato");
+        }
+        if (!barbersRepository.existsById(barberId)) {
+            throw new RuntimeException("Barbiere non trovato");
+        }
+        if (!servicesRepository.existsById(serviceId)) {
+            throw new RuntimeException("Servizio non trovato");
+        }
+        throw new RuntimeException("Servizio non disponibile nella sede del barbiere");
+    }
+
+    // Lookups shared by the nested steps of one booking transaction (see TransactionMemo)
+
+    private Services findService(Long id) {
+        return TransactionMemo.get("service", id, () -> getEntityById(servicesRepository, id, "Servizio non trovato"));
+    }
+
+    /**
+     * Loads the barber with a write lock held until the transaction ends; every booking path takes
+     * it before checking for overlaps, which serializes the bookings of one barber.
+     */
+    private Barbers lockBarber(Long id) {
+        return barbersRepository.findLockedById(id).orElseThrow(() -> new RuntimeException("Barbiere non trovato"));
+    }
+
+    private Users findCustomer(Long id) {
+        return TransactionMemo.get("customer", id, () -> getEntityById(usersRepository, id, "Cliente non trovato"));
+    }
+
+    /**
+     * Hours of the barber's shop on the weekday of a date.
+     */
+    private BusinessHours findBusinessHours(Long barberId, LocalDate date) {
+        int giorno = date.getDayOfWeek().getValue() % 7;
+        return TransactionMemo.get("businessHours", new BarberDay(barberId, date),
+                () -> businessHoursRepository.findForBarber(barberId, giorno).orElse(null));
+    }
+
+    /**
+     * Confirmed bookings of a barber-day. The returned list is shared within the transaction and
+     * must not be modified; writers call {@link #evictDay} after saving.
+     */
+    private List<BookedSlot> findConfirmedDay(Long barberId, LocalDate date) {
+        return TransactionMemo.get("day", new BarberDay(barberId, date), () -> appointmentsRepository
+                .findBookedSlots(barberId, date, Appointments.StatoAppuntamento.CONFERMATO));
+    }
+
+    private void evictDay(Long barberId, LocalDate date) {
+        TransactionMemo.evict("day", new BarberDay(barberId, date));
+    }
+
+    private record BarberDay(Long barberId, LocalDate date) {
+    }
+
     /**
      * Gets all appointments for a user.
      *
      * @param userId the user id
      * @return the list of appointments
      */
+    @Transactional(readOnly = true)
     public List<Appointments> getAppointmentsByUser(Long userId) {
         return appointmentsRepository.findByCustomerId(userId);
     }
 
+    /**
+     * Gets the whole history of a customer: the archived appointments, oldest first, followed by
+     * the ones still in the hot table.
+     *
+     * @param userId the user id
+     * @return the list of appointments
+     */
+    @Transactional(readOnly = true)
+    public List<AppointmentResponse> getCustomerHistory(Long userId) {
+        List<AppointmentResponse> history = new ArrayList<>();
+        appointmentArchiveRepository.findByCustomerIdOrderByDataAscOrarioInizioAsc(userId)
+                .forEach(archived -> history.add(AppointmentResponse.from(archived)));
+        appointmentsRepository.findByCustomerId(userId)
+                .forEach(appointment -> history.add(AppointmentResponse.from(appointment)));
+        return history;
+    }
+
     /**
      * Gets all appointments for a barber.
      *
      * @param barberId the barber id
      * @return the list of appointments
      */
+    @Transactional(readOnly = true)
     public List<Appointments> getAppointmentsByBarber(Long barberId) {
         return appointmentsRepository.findByBarberId(barberId);
     }
@@ -94,6 +400,7 @@ public class AppointmentsService {
      * @param id the appointment id
      * @return the appointment
      */
+    @Transactional(readOnly = true)
     public Optional<Appointments> getAppointmentById(Long id) {
         return appointmentsRepository.findById(id);
     }
@@ -103,12 +410,14 @@ public class AppointmentsService {
      *
      * @return the list of appointments
      */
+    @Transactional(readOnly = true)
     public List<Appointments> getAllAppointments() {
         return appointmentsRepository.findAll();
     }
 
     /**
-     * Updates an appointment.
+     * Updates an appointment. The target barber is locked before the overlap check, as for new
+     * bookings, so two appointments cannot be moved into the same slot at once.
      *
      * @param id      the appointment id
      * @param request the appointment request
@@ -118,19 +427,33 @@ public class AppointmentsService {
     public Appointments updateAppointment(Long id, AppointmentRequest request) {
         Appointments appointment = getEntityById(appointmentsRepository, id, "Appuntamento non trovato");
 
-        if (!isSlotAvailable(request.getBarberId(), request.getData(), request.getOrarioInizio(), request.getServiceId())) {
+        // The version the client edited must still be current; concurrent commits are caught at flush
+        if (!Objects.equals(request.getVersion(), appointment.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Appointments.class, id);
+        }
+
+        Barbers barber = lockBarber(request.getBarberId());
+        if (!isSlotAvailable(request.getBarberId(), request.getData(), request.getOrarioInizio(), request.getServiceId(), id)) {
             throw new RuntimeException("Slot non disponibile");
         }
 
-        Barbers barber = getEntityById(barbersRepository, request.getBarberId(), "Barbiere non trovato");
-        Services service = getEntityById(servicesRepository, request.getServiceId(), "Servizio non trovato");
+        Services service = findService(request.getServiceId());
+
+        Long previousBarberId = appointment.getBarber().getId();
+        LocalDate previousData = appointment.getData();
 
         appointment.setBarber(barber);
         appointment.setService(service);
         appointment.setData(request.getData());
         appointment.setOrarioInizio(request.getOrarioInizio());
 
-        return appointmentsRepository.save(appointment);
+        Appointments saved = appointmentsRepository.save(appointment);
+        bookingOutboxService.record(BookingOutbox.TipoEvento.SPOSTATO, saved);
+        evictDay(previousBarberId, previousData);
+        evictDay(request.getBarberId(), request.getData());
+        publishChanged(saved, previousBarberId, previousData);
+        publishChanged(saved, request.getBarberId(), request.getData());
+        return saved;
     }
 
     /**
@@ -138,6 +461,7 @@ public class AppointmentsService {
      *
      * @param id the appointment id
      */
+    @Timed(value = "booking.appointment.cancel", description = "Time to cancel an appointment and promote the waiting list")
     @Transactional
     public void cancelAppointment(Long id) {
         Appointments appointment = appointmentsRepository.findById(id)
@@ -145,11 +469,17 @@ public class AppointmentsService {
 
         appointment.setStato(Appointments.StatoAppuntamento.ANNULLATO);
         appointmentsRepository.save(appointment);
+        bookingOutboxService.record(BookingOutbox.TipoEvento.ANNULLATO, appointment);
+        evictDay(appointment.getBarber().getId(), appointment.getData());
+        publishChanged(appointment, appointment.getBarber().getId(), appointment.getData());
 
         processWaitingListForCancelledAppointment(appointment);
     }
 
     private void processWaitingListForCancelledAppointment(Appointments cancelledAppointment) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "empty";
+
         // Find the first in the waiting list for that barber, service, and date
         Optional<WaitingList> firstInQueue = waitingListRepository
                 .findFirstByBarberIdAndServiceIdAndDataRichiestaAndStatoOrderByDataIscrizioneAsc(
@@ -171,16 +501,22 @@ public class AppointmentsService {
             appointmentRequest.setOrarioInizio(cancelledAppointment.getOrarioInizio());
 
             try {
-                createAppointment(appointmentRequest);
+                Appointments promoted = createAppointment(appointmentRequest);
 
                 // Update the status in the waiting list
                 waitingEntry.setStato(WaitingList.StatoListaAttesa.CONFERMATO);
                 waitingListRepository.save(waitingEntry);
+                bookingOutboxService.record(BookingOutbox.TipoEvento.LISTA_ATTESA_PROMOSSA, promoted);
+                outcome = "promoted";
 
             } catch (Exception e) {
-                System.err.println("Error in the automatic assignment of the slot: " + e.getMessage());
+                outcome = "failed";
+                logger.warn("Error in the automatic assignment of the slot to waiting-list entry {}: {}",
+                        waitingEntry.getId(), e.getMessage());
             }
         }
+
+        sample.stop(meterRegistry.timer("booking.waitinglist.promotion", "outcome", outcome));
     }
 
     /**
@@ -191,18 +527,17 @@ public class AppointmentsService {
      * @param date      the date
      * @return the list of available slots
      */
+    @Timed(value = "booking.slots.search", description = "Time to compute the available slots of a barber-day")
+    @Transactional(readOnly = true)
     public List<AvailableSlotResponse> getAvailableSlots(Long barberId, Long serviceId, LocalDate date) {
         List<AvailableSlotResponse> slots = new ArrayList<>();
 
-        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
-
-        BusinessHours businessHours = businessHoursRepository.findByGiorno(dayOfWeek).orElse(null);
-        if (businessHours != null && !businessHours.isAperto()) {
+        BusinessHours businessHours = findBusinessHours(barberId, date);
+        if (businessHours == null || !businessHours.isAperto()) {
             return slots;
         }
 
-        Services service = servicesRepository.findById(serviceId)
-                .orElseThrow(() -> new RuntimeException("Servizio non trovato"));
+        Services service = findService(serviceId);
 
         int serviceDuration = service.getDurata();
         if (serviceDuration <= 0) {
@@ -216,54 +551,131 @@ public class AppointmentsService {
             return slots;
         }
 
-        LocalTime currentTime = apertura;
+        // One query for the whole day, then each candidate is an O(1) lookup on the timeline
+        DayTimeline timeline = DayTimeline.of(businessHours, findConfirmedDay(barberId, date));
+        int step = slotStepMinutes > 0 ? slotStepMinutes : serviceDuration;
+        long openMinutes = Duration.between(apertura, chiusura).toMinutes();
 
-        while (!currentTime.plusMinutes(serviceDuration).isAfter(chiusura)) {
+        for (long offset = 0; offset + serviceDuration <= openMinutes; offset += step) {
+            LocalTime currentTime = apertura.plusMinutes(offset);
             LocalTime slotEnd = currentTime.plusMinutes(serviceDuration);
-            boolean available = isSlotAvailable(barberId, date, currentTime, serviceId);
-
-            slots.add(new AvailableSlotResponse(currentTime, slotEnd, available));
-
-            currentTime = currentTime.plusMinutes(serviceDuration);
+            slots.add(new AvailableSlotResponse(currentTime, slotEnd, timeline.fits(currentTime, serviceDuration)));
         }
 
         slots.sort(Comparator.comparing(AvailableSlotResponse::getOrarioInizio));
         return slots;
     }
 
-    private boolean isSlotAvailable(Long barberId, LocalDate date, LocalTime orarioInizio, Long serviceId) {
-        Services service = servicesRepository.findById(serviceId)
-                .orElseThrow(() -> new RuntimeException("Servizio non trovato"));
-
-        LocalTime orarioFine = orarioInizio.plusMinutes(service.getDurata());
-
-        int dayOfWeek = date.getDayOfWeek().getValue() % 7;
-        BusinessHours businessHours = businessHoursRepository.findByGiorno(dayOfWeek).orElse(null);
+    /**
+     * Finds the earliest free slots for a service with any barber offering it. Days are scanned
+     * forward a week of bookings at a time; within a day the barbers' next free starts are merged
+     * through a priority queue, so the search stops as soon as enough slots are found.
+     *
+     * @param serviceId the service id
+     * @param from      the first day to search
+     * @param limit     the number of slots wanted
+     * @return the earliest slots, in chronological order
+     */
+    @Timed(value = "booking.slots.next-available", description = "Time to find the earliest free slots across barbers")
+    @Transactional(readOnly = true)
+    public List<NextAvailableSlotResponse> getNextAvailableSlots(Long serviceId, LocalDate from, int limit) {
+        if (limit < 1 || limit > MAX_NEXT_AVAILABLE) {
+            throw new IllegalArgumentException("Il numero di slot richiesti deve essere compreso tra 1 e " + MAX_NEXT_AVAILABLE);
+        }
+        List<NextAvailableSlotResponse> hits = new ArrayList<>();
 
-        if (businessHours != null) {
-            if (!businessHours.isAperto()) {
-                return false;
+        Services service = getEntityById(servicesRepository, serviceId, "Servizio non trovato");
+        int duration = service.getDurata();
+        if (duration <= 0) {
+            return hits;
+        }
+        int step = slotStepMinutes > 0 ? slotStepMinutes : duration;
+
+        Map<Long, Barbers> barbers = barberServicesRepository.findByServiceId(serviceId).stream()
+                .map(BarberServices::getBarber)
+                .filter(barber -> !Boolean.FALSE.equals(barber.getIsActive()))
+                .collect(Collectors.toMap(Barbers::getId, Function.identity(), (first, second) -> first, LinkedHashMap::new));
+        if (barbers.isEmpty()) {
+            return hits;
+        }
+        Map<Integer, BusinessHours> hoursByDay = businessHoursRepository.findByShopId(service.getShopId()).stream()
+                .collect(Collectors.toMap(BusinessHours::getGiorno, Function.identity(), (first, second) -> first));
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate start = from.isBefore(now.toLocalDate()) ? now.toLocalDate() : from;
+        LocalDate last = start.plusDays(nextAvailableDays - 1L);
+
+        for (LocalDate chunkStart = start; !chunkStart.isAfter(last) && hits.size() < limit;
+             chunkStart = chunkStart.plusDays(SEARCH_CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(SEARCH_CHUNK_DAYS - 1L).isAfter(last)
+                    ? last : chunkStart.plusDays(SEARCH_CHUNK_DAYS - 1L);
+            Map<Long, Map<LocalDate, List<BookedSlot>>> booked = appointmentsRepository
+                    .findBookedSlotsBetween(barbers.keySet(), chunkStart, chunkEnd,
+                            Appointments.StatoAppuntamento.CONFERMATO)
+                    .stream()
+                    .collect(Collectors.groupingBy(BookedSlot::getBarberId,
+                            Collectors.groupingBy(BookedSlot::getData)));
+
+            for (LocalDate date = chunkStart; !date.isAfter(chunkEnd) && hits.size() < limit; date = date.plusDays(1)) {
+                BusinessHours businessHours = hoursByDay.get(date.getDayOfWeek().getValue() % 7);
+                if (businessHours == null || !businessHours.isAperto()
+                        || businessHours.getApertura() == null || businessHours.getChiusura() == null) {
+                    continue;
+                }
+                int open = DayTimeline.minutes(businessHours.getApertura());
+                int earliest = date.equals(now.toLocalDate()) ? Math.max(open, DayTimeline.minutes(now.toLocalTime()) + 1) : open;
+
+                PriorityQueue<Candidate> queue = new PriorityQueue<>(Comparator
+                        .comparingInt(Candidate::start)
+                        .thenComparing(candidate -> candidate.barber().getId()));
+                for (Barbers barber : barbers.values()) {
+                    DayTimeline timeline = DayTimeline.of(businessHours,
+                            booked.getOrDefault(barber.getId(), Map.of()).getOrDefault(date, List.of()));
+                    int fit = timeline.nextFit(earliest, duration, open, step);
+                    if (fit >= 0) {
+                        queue.add(new Candidate(fit, barber, timeline));
+                    }
+                }
+
+                while (!queue.isEmpty() && hits.size() < limit) {
+                    Candidate candidate = queue.poll();
+                    LocalTime orarioInizio = LocalTime.of(candidate.start() / 60, candidate.start() % 60);
+                    hits.add(new NextAvailableSlotResponse(BarberSummary.from(candidate.barber()), date,
+                            orarioInizio, orarioInizio.plusMinutes(duration)));
+                    int next = candidate.timeline().nextFit(candidate.start() + step, duration, open, step);
+                    if (next >= 0) {
+                        queue.add(new Candidate(next, candidate.barber(), candidate.timeline()));
+                    }
+                }
             }
+        }
+        return hits;
+    }
 
-            if (businessHours.getApertura() != null && orarioInizio.isBefore(businessHours.getApertura())) {
-                return false;
-            }
+    private record Candidate(int start, Barbers barber, DayTimeline timeline) {
+    }
 
-            if (businessHours.getChiusura() != null && orarioFine.isAfter(businessHours.getChiusura())) {
-                return false;
-            }
+    /**
+     * Checks a single booking: the shop hours in memory, then one indexed query asking the
+     * database whether any confirmed booking of the barber overlaps the block.
+     */
+    private boolean isSlotAvailable(Long barberId, LocalDate date, LocalTime orarioInizio, Long serviceId,
+                                    Long excludedAppointmentId) {
+        int durata = findService(serviceId).getDurata();
+        if (!DayTimeline.withinHours(findBusinessHours(barberId, date), orarioInizio, durata)) {
+            return false;
         }
+        int start = DayTimeline.minutes(orarioInizio);
+        return !appointmentsRepository.existsOverlap(barberId, date, Appointments.StatoAppuntamento.CONFERMATO,
+                orarioInizio.plusMinutes(durata), start, excludedAppointmentId);
+    }
 
-        List<Appointments> existingAppointments = appointmentsRepository
-                .findByBarberIdAndDataAndStato(barberId, date, Appointments.StatoAppuntamento.CONFERMATO);
-
-        return existingAppointments.stream().noneMatch(appointment -> {
-            LocalTime existingStart = appointment.getOrarioInizio();
-            LocalTime existingEnd = existingStart.plusMinutes(appointment.getService().getDurata());
-            return orarioInizio.isBefore(existingEnd) && orarioFine.isAfter(existingStart);
-        });
+    private boolean fitsInDay(LocalTime orarioInizio, int durata, BusinessHours businessHours,
+                              List<BookedSlot> existingAppointments) {
+        return DayTimeline.of(businessHours, existingAppointments).fits(orarioInizio, durata);
     }
 
+    @Transactional(readOnly = true)
     public List<Appointments> getAppointmentsByDate(LocalDate date) {
         return appointmentsRepository.findByDataAndStato(date, Appointments.StatoAppuntamento.CONFERMATO);
     }
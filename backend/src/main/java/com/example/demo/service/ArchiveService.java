@@ -0,0 +1,116 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Moves appointments and waiting-list entries older than {@code app.archive.horizon-days} into
+ * their archive tables, so the hot tables only hold the recent past and the future.
+ * <p>
+ * Rows move in batches of {@code app.archive.batch-size}, each copied and deleted in its own
+ * short transaction, and a run stops after {@code app.archive.max-batches} per table: a backlog
+ * is worked off over several runs instead of locking the tables for long. Batches are picked
+ * oldest date first through the date index, and claimed with {@code FOR UPDATE SKIP LOCKED}, so
+ * the nodes running the job at the same time each move different rows.
+ */
+@Service
+public class ArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveService.class);
+
+    private static final Table APPOINTMENTS = new Table("appointments", "appointments_archive", "data",
+            "id, customer_id, barber_id, service_id, data, orario_inizio, stato, version");
+    private static final Table WAITING_LIST = new Table("waiting_list", "waiting_list_archive", "data_richiesta",
+            "id, customer_id, barber_id, service_id, data_richiesta, data_iscrizione, stato, version");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches:20}")
+    private int maxBatches;
+
+    /**
+     * Archives the rows that fell behind the horizon. Scheduled by {@code app.archive.cron}.
+     *
+     * @return the number of appointments archived
+     */
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public int archive() {
+        if (horizonDays < 1) {
+            throw new IllegalArgumentException("L'orizzonte di archiviazione deve essere di almeno un giorno");
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(horizonDays);
+        int appointments = archive(APPOINTMENTS, cutoff);
+        int waiting = archive(WAITING_LIST, cutoff);
+        if (appointments > 0 || waiting > 0) {
+            logger.info("Archiviati {} appuntamenti e {} voci di lista d'attesa precedenti al {}", appointments, waiting, cutoff);
+        }
+        return appointments;
+    }
+
+    private int archive(Table table, LocalDate cutoff) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            Integer moved = transaction.execute(status -> moveBatch(table, cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        meterRegistry.counter("archive.rows", "table", table.name()).increment(archived);
+        return archived;
+    }
+
+    private int moveBatch(Table table, LocalDate cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + table.name() + " WHERE " + table.dateColumn() + " < ?"
+                        + " ORDER BY " + table.dateColumn() + ", id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, Date.valueOf(cutoff), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        Object[] copyArgs = new Object[ids.size() + 1];
+        copyArgs[0] = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < ids.size(); i++) {
+            copyArgs[i + 1] = ids.get(i);
+        }
+        jdbcTemplate.update("INSERT INTO " + table.archive() + " (" + table.columns() + ", data_archiviazione) "
+                + "SELECT " + table.columns() + ", ? FROM " + table.name() + " WHERE id IN (" + placeholders + ")", copyArgs);
+        return jdbcTemplate.update("DELETE FROM " + table.name() + " WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    private record Table(String name, String archive, String dateColumn, String columns) {
+    }
+}
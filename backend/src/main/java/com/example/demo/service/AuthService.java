@@ -1,10 +1,13 @@
 package com.example.demo.service;
 
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.model.Users;
 import com.example.demo.repository.UsersRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthService {
@@ -15,8 +18,14 @@ public class AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Users register(Users user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return usersRepository.save(user);
+        Users saved = usersRepository.save(user);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.USERS));
+        return saved;
     }
 }
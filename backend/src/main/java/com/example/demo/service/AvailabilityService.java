@@ -6,6 +6,7 @@ import com.example.demo.repository.AvailabilityRepository;
 import com.example.demo.repository.BarbersRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,16 +19,19 @@ public class AvailabilityService {
     @Autowired
     private BarbersRepository barbersRepository;
 
+    @Transactional
     public Availability createAvailability(Long barberId, Availability availability) {
         Barbers barber = barbersRepository.findById(barberId).orElseThrow();
         availability.setBarber(barber); // CAMBIATO da setBarbiere a setBarber
         return availabilityRepository.save(availability);
     }
 
+    @Transactional(readOnly = true)
     public List<Availability> getAllAvailability() {
         return availabilityRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Availability> getAvailabilityByBarber(Long barberId) {
         return availabilityRepository.findByBarberId(barberId);
     }
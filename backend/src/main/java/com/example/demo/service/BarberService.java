@@ -1,12 +1,5 @@
 package com.example.demo.service;
 
-import com.example.demo.model.BarberServices;
-import com.example.demo.model.Barbers;
-import com.example.demo.model.Services;
-import com.example.demo.repository.BarbersRepository;
-import com.example.demo.repository.BarberServicesRepository;
-import com.example.demo.repository.ServicesRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -16,26 +9,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class BarberService {
 
-    private final BarbersRepository barberRepository;
-    private final ServicesRepository serviceRepository;
-    private final BarberServicesRepository barberServicesRepository;
+    private final BarbersService barbersService;
 
-    @Transactional
+    /**
+     * Replaces the services of a barber. Kept for {@code BarberController}; the checks and the
+     * writes live in {@link BarbersService#updateBarberServices}.
+     *
+     * @param barberId   the barber id
+     * @param serviceIds the ids of the services the barber offers
+     */
     public void updateBarberServices(Long barberId, List<Long> serviceIds) {
-        Barbers barber = barberRepository.findById(barberId)
-                .orElseThrow(() -> new RuntimeException("Barbiere non trovato con id: " + barberId));
-
-        // Rimuovi le vecchie associazioni
-        barberServicesRepository.deleteByBarberId(barberId);
-
-        // Crea le nuove associazioni
-        for (Long serviceId : serviceIds) {
-            Services service = serviceRepository.findById(serviceId)
-                    .orElseThrow(() -> new RuntimeException("Servizio non trovato con id: " + serviceId));
-            BarberServices barberService = new BarberServices();
-            barberService.setBarber(barber);
-            barberService.setService(service);
-            barberServicesRepository.save(barberService);
-        }
+        barbersService.updateBarberServices(barberId, serviceIds);
     }
 }
@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.BarberAvailabilityRequest;
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.model.Availability;
 import com.example.demo.model.BarberServices;
 import com.example.demo.model.Barbers;
@@ -9,12 +10,16 @@ import com.example.demo.repository.AvailabilityRepository;
 import com.example.demo.repository.BarberServicesRepository;
 import com.example.demo.repository.BarbersRepository;
 import com.example.demo.repository.ServicesRepository;
-import jakarta.transaction.Transactional;
+import com.example.demo.util.ShopContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,13 +37,17 @@ public class BarbersService {
     @Autowired
     private AvailabilityRepository availabilityRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Gets all barbers.
+     * Gets all barbers of the current shop.
      *
      * @return the list of barbers
      */
+    @Transactional(readOnly = true)
     public List<Barbers> getAllBarbers() {
-        return barbersRepository.findAll();
+        return barbersRepository.findByShopId(ShopContext.currentShopId());
     }
 
     /**
@@ -47,6 +56,7 @@ public class BarbersService {
      * @param id the barber id
      * @return the barber
      */
+    @Transactional(readOnly = true)
     public Optional<Barbers> getBarberById(Long id) {
         return barbersRepository.findById(id);
     }
@@ -57,9 +67,13 @@ public class BarbersService {
      * @param barber the barber to create
      * @return the created barber
      */
+    @Transactional
     public Barbers createBarber(Barbers barber) {
         barber.setIsActive(true);
-        return barbersRepository.save(barber);
+        barber.setShopId(ShopContext.currentShopId());
+        Barbers saved = barbersRepository.save(barber);
+        publishBarbersChanged();
+        return saved;
     }
 
     /**
@@ -69,6 +83,7 @@ public class BarbersService {
      * @param barberDetails the barber details
      * @return the updated barber
      */
+    @Transactional
     public Barbers updateBarber(Long id, Barbers barberDetails) {
         Barbers barber = barbersRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Barber not found"));
@@ -79,7 +94,9 @@ public class BarbersService {
         barber.setSpecialita(barberDetails.getSpecialita());
         barber.setIsActive(barberDetails.getIsActive());
         
-        return barbersRepository.save(barber);
+        Barbers saved = barbersRepository.save(barber);
+        publishBarbersChanged();
+        return saved;
     }
 
     /**
@@ -87,8 +104,10 @@ public class BarbersService {
      *
      * @param id the barber id
      */
+    @Transactional
     public void deleteBarber(Long id) {
         barbersRepository.deleteById(id);
+        publishBarbersChanged();
     }
 
     /**
@@ -98,17 +117,19 @@ public class BarbersService {
      * @param serviceId the service id
      * @return the barber service
      */
+    @Transactional
     public BarberServices assignServiceToBarber(Long barberId, Long serviceId) {
-        Barbers barber = barbersRepository.findById(barberId)
-                .orElseThrow(() -> new RuntimeException("Barber not found"));
-        Services service = servicesRepository.findById(serviceId)
-                .orElseThrow(() -> new RuntimeException("Service not found"));
+        if (barbersRepository.countServicesForExistingBarber(barberId, List.of(serviceId)) == 0) {
+            throw new RuntimeException(barbersRepository.existsById(barberId) ? "Service not found" : "Barber not found");
+        }
 
         BarberServices barberService = new BarberServices();
-        barberService.setBarber(barber);
-        barberService.setService(service);
-        
-        return barberServicesRepository.save(barberService);
+        barberService.setBarber(barbersRepository.getReferenceById(barberId));
+        barberService.setService(servicesRepository.getReferenceById(serviceId));
+
+        BarberServices saved = barberServicesRepository.save(barberService);
+        publishBarbersChanged();
+        return saved;
     }
 
     /**
@@ -117,10 +138,12 @@ public class BarbersService {
      * @param barberId the barber id
      * @return the list of barber services
      */
+    @Transactional(readOnly = true)
     public List<BarberServices> getBarberServices(Long barberId) {
         return barberServicesRepository.findByBarberId(barberId);
     }
 
+    @Transactional(readOnly = true)
     public List<Services> getServicesForBarber(Long barberId) {
         return barberServicesRepository.findByBarberId(barberId)
                 .stream()
@@ -130,20 +153,41 @@ public class BarbersService {
 
     @Transactional
     public void updateBarberServices(Long barberId, List<Long> serviceIds) {
-        Barbers barber = barbersRepository.findById(barberId)
-                .orElseThrow(() -> new RuntimeException("Barbiere non trovato"));
+        requireBarberAndServices(barberId, serviceIds);
 
         barberServicesRepository.deleteByBarberId(barberId);
 
+        Barbers barber = barbersRepository.getReferenceById(barberId);
         for (Long serviceId : serviceIds) {
-            Services service = servicesRepository.findById(serviceId)
-                    .orElseThrow(() -> new RuntimeException("Servizio non trovato con id: " + serviceId));
-
             BarberServices barberService = new BarberServices();
             barberService.setBarber(barber);
-            barberService.setService(service);
+            barberService.setService(servicesRepository.getReferenceById(serviceId));
             barberServicesRepository.save(barberService);
         }
+        publishBarbersChanged();
+    }
+
+    /**
+     * Checks the barber and all the services with one query; the specific lookups only run to name
+     * what is missing.
+     */
+    private void requireBarberAndServices(Long barberId, List<Long> serviceIds) {
+        Set<Long> distinctIds = new HashSet<>(serviceIds);
+        if (!distinctIds.isEmpty()
+                && barbersRepository.countServicesForExistingBarber(barberId, distinctIds) == distinctIds.size()) {
+            return;
+        }
+        if (!barbersRepository.existsById(barberId)) {
+            throw new RuntimeException("Barbiere non trovato");
+        }
+        Set<Long> existing = servicesRepository.findAllById(distinctIds).stream()
+                .map(Services::getId)
+                .collect(Collectors.toSet());
+        for (Long serviceId : serviceIds) {
+            if (!existing.contains(serviceId)) {
+                throw new RuntimeException("Servizio non trovato con id: " + serviceId);
+            }
+        }
     }
 
     /**
@@ -153,6 +197,7 @@ public class BarbersService {
      * @param request  the availability request
      * @return the availability
      */
+    @Transactional
     public Availability addAvailability(Long barberId, BarberAvailabilityRequest request) {
         Barbers barber = barbersRepository.findById(barberId)
                 .orElseThrow(() -> new RuntimeException("Barber not found"));
@@ -172,6 +217,7 @@ public class BarbersService {
      * @param barberId the barber id
      * @return the list of availabilities
      */
+    @Transactional(readOnly = true)
     public List<Availability> getBarberAvailability(Long barberId) {
         return availabilityRepository.findByBarberId(barberId);
     }
@@ -182,6 +228,7 @@ public class BarbersService {
      * @param serviceId the service id
      * @return the list of barbers
      */
+    @Transactional(readOnly = true)
     public List<Barbers> getBarbersByService(Long serviceId) {
         List<BarberServices> barberServices = barberServicesRepository.findByServiceId(serviceId);
         return barberServices.stream()
@@ -189,4 +236,8 @@ public class BarbersService {
                 .filter(Barbers::getIsActive)
                 .collect(Collectors.toList());
     }
+
+    private void publishBarbersChanged() {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.BARBERS));
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.demo.service;
+
+import com.example.demo.event.BookingEvent;
+import com.example.demo.event.BookingEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Counts the booking events by type and measures how far the outbox relay lags behind the commits.
+ */
+@Component
+public class BookingAnalyticsListener implements BookingEventListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void onBookingEvent(BookingEvent event) {
+        meterRegistry.counter("booking.events", "tipo", event.tipo().name()).increment();
+        meterRegistry.timer("booking.outbox.lag")
+                .record(Duration.between(event.dataCreazione(), LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.service;
+
+import com.example.demo.event.BookingEvent;
+import com.example.demo.event.BookingEventListener;
+import com.example.demo.model.BookingOutbox;
+import com.example.demo.repository.BookingOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the booking outbox in id order and hands every batch to the {@link BookingEventListener}s.
+ * <p>
+ * Delivery is at least once: a batch is marked published only after its events were handled,
+ * so a crash in between delivers them again. When a listener fails on a batch, the batch is
+ * replayed one event at a time: the events before the failing one are checkpointed and the rest
+ * is retried on the next run. An event that keeps failing is given up after
+ * {@code app.outbox.max-attempts}.
+ * <p>
+ * Every node may run the relay: a batch is claimed with {@code FOR UPDATE SKIP LOCKED} and
+ * delivered and checkpointed in the same transaction, so concurrent relays take disjoint batches.
+ * Events are then ordered within a batch but not across nodes; set {@code app.outbox.relay.enabled}
+ * to false on all nodes but one when listeners need the global order.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingOutboxRelay.class);
+    private static final Duration PURGE_INTERVAL = Duration.ofHours(1);
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private List<BookingEventListener> listeners = List.of();
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    private Instant nextPurge = Instant.EPOCH;
+
+    /**
+     * Delivers the pending events, batch after batch, until the outbox is empty or a listener fails.
+     *
+     * @return the number of events checkpointed
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:500ms}")
+    public synchronized int drain() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int published = 0;
+        Batch batch;
+        do {
+            batch = transaction.execute(status -> claimAndDeliver());
+            published += batch.published();
+        } while (batch.claimed() == batchSize && batch.published() == batch.claimed());
+
+        Instant now = Instant.now();
+        if (now.isAfter(nextPurge)) {
+            nextPurge = now.plus(PURGE_INTERVAL);
+            bookingOutboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        }
+        return published;
+    }
+
+    /**
+     * Claims the next batch and delivers it; the locks are released when the checkpoint commits.
+     */
+    private Batch claimAndDeliver() {
+        List<BookingOutbox> batch = bookingOutboxRepository.findByDataPubblicazioneIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        List<Long> done = new ArrayList<>();
+        if (deliverBatch(batch)) {
+            batch.forEach(outbox -> done.add(outbox.getId()));
+        } else {
+            for (BookingOutbox outbox : batch) {
+                if (!deliver(outbox)) {
+                    break;
+                }
+                done.add(outbox.getId());
+            }
+        }
+        if (!done.isEmpty()) {
+            bookingOutboxRepository.markPublished(done, LocalDateTime.now());
+        }
+        return new Batch(batch.size(), done.size());
+    }
+
+    private record Batch(int claimed, int published) {
+    }
+
+    private boolean deliverBatch(List<BookingOutbox> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        List<BookingEvent> events = batch.stream().map(BookingEvent::from).toList();
+        try {
+            for (BookingEventListener listener : listeners) {
+                listener.onBookingEvents(events);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            logger.debug("Consegna in blocco fallita, si riprova evento per evento: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean deliver(BookingOutbox outbox) {
+        BookingEvent event = BookingEvent.from(outbox);
+        try {
+            for (BookingEventListener listener : listeners) {
+                listener.onBookingEvent(event);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            bookingOutboxRepository.incrementAttempts(outbox.getId());
+            if (outbox.getTentativi() + 1 >= maxAttempts) {
+                logger.error("Evento {} scartato dopo {} tentativi", event, maxAttempts, e);
+                return true;
+            }
+            logger.warn("Consegna dell'evento {} fallita, nuovo tentativo al prossimo giro: {}", event.id(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Appointments;
+import com.example.demo.model.BookingOutbox;
+import com.example.demo.repository.BookingOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Service
+public class BookingOutboxService {
+
+    private static final String SYSTEM_ACTOR = "sistema";
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    /**
+     * Records a booking event in the outbox. It must join the transaction that writes the
+     * appointment, so the event is committed, or rolled back, together with it.
+     *
+     * @param tipo        what happened to the appointment
+     * @param appointment the appointment, already saved
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(BookingOutbox.TipoEvento tipo, Appointments appointment) {
+        BookingOutbox outbox = new BookingOutbox();
+        outbox.setTipo(tipo);
+        outbox.setAppointmentId(appointment.getId());
+        // Only the ids of the associations are read, so lazy references stay uninitialized
+        outbox.setBarberId(appointment.getBarber() != null ? appointment.getBarber().getId() : null);
+        outbox.setCustomerId(appointment.getCustomer() != null ? appointment.getCustomer().getId() : null);
+        outbox.setServiceId(appointment.getService() != null ? appointment.getService().getId() : null);
+        outbox.setData(appointment.getData());
+        outbox.setOrarioInizio(appointment.getOrarioInizio());
+        outbox.setAttore(currentActor());
+        outbox.setDataCreazione(LocalDateTime.now());
+        bookingOutboxRepository.save(outbox);
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return SYSTEM_ACTOR;
+        }
+        return authentication.getName();
+    }
+}
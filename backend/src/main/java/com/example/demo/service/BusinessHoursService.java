@@ -1,8 +1,11 @@
 package com.example.demo.service;
 
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.model.BusinessHours;
 import com.example.demo.repository.BusinessHoursRepository;
+import com.example.demo.util.ShopContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,27 +20,55 @@ public class BusinessHoursService {
     @Autowired
     private BusinessHoursRepository businessHoursRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<BusinessHours> getBusinessHours() {
-        List<BusinessHours> hours = businessHoursRepository.findAll();
-        hours = removeDuplicateDays(hours);
+        return getBusinessHours(ShopContext.currentShopId());
+    }
 
-        if (hours.isEmpty()) {
-            hours = createDefaultHours();
-            businessHoursRepository.saveAll(hours);
+    /**
+     * Gets the weekly hours of a shop. Duplicate days are skipped here and removed by the next update.
+     *
+     * @param shopId the shop id
+     * @return the hours, one entry per weekday
+     */
+    @Transactional(readOnly = true)
+    public List<BusinessHours> getBusinessHours(long shopId) {
+        List<BusinessHours> hours = new ArrayList<>();
+        Integer currentDay = null;
+        for (BusinessHours entry : sortedByDay(businessHoursRepository.findByShopId(shopId))) {
+            if (!entry.getGiorno().equals(currentDay)) {
+                hours.add(entry);
+                currentDay = entry.getGiorno();
+            }
         }
-
-        hours.sort(Comparator.comparingInt(BusinessHours::getGiorno));
         return hours;
     }
 
+    /**
+     * Creates the default week for a shop that has no hours yet.
+     *
+     * @param shopId the shop id
+     */
+    @Transactional
+    public void ensureDefaultHours(long shopId) {
+        if (businessHoursRepository.findByShopId(shopId).isEmpty()) {
+            businessHoursRepository.saveAll(createDefaultHours(shopId));
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.BUSINESS_HOURS));
+        }
+    }
+
     @Transactional
     public List<BusinessHours> updateBusinessHours(List<BusinessHours> updatedHours) {
+        long shopId = ShopContext.currentShopId();
         List<BusinessHours> result = new ArrayList<>();
 
         for (BusinessHours incoming : updatedHours) {
             validateBusinessHour(incoming);
 
-            BusinessHours entity = findOrCreateUniqueEntry(incoming.getGiorno());
+            BusinessHours entity = findOrCreateUniqueEntry(shopId, incoming.getGiorno());
 
             entity.setAperto(incoming.isAperto());
             entity.setApertura(incoming.isAperto() ? incoming.getApertura() : null);
@@ -47,41 +78,23 @@ public class BusinessHoursService {
         }
 
         result.sort(Comparator.comparingInt(BusinessHours::getGiorno));
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.BUSINESS_HOURS));
         return result;
     }
 
-    private List<BusinessHours> removeDuplicateDays(List<BusinessHours> entries) {
-        if (entries.isEmpty()) {
-            return entries;
-        }
-
-        List<BusinessHours> uniqueEntries = new ArrayList<>();
-        List<BusinessHours> duplicates = new ArrayList<>();
-
-        entries.sort(Comparator.comparingInt(BusinessHours::getGiorno));
-
-        Integer currentDay = null;
-        for (BusinessHours entry : entries) {
-            if (currentDay == null || !currentDay.equals(entry.getGiorno())) {
-                uniqueEntries.add(entry);
-                currentDay = entry.getGiorno();
-            } else {
-                duplicates.add(entry);
-            }
-        }
-
-        if (!duplicates.isEmpty()) {
-            businessHoursRepository.deleteAll(duplicates);
-        }
-
-        return uniqueEntries;
+    private static List<BusinessHours> sortedByDay(List<BusinessHours> entries) {
+        List<BusinessHours> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(BusinessHours::getGiorno)
+                .thenComparing(BusinessHours::getId, Comparator.nullsLast(Long::compareTo)));
+        return sorted;
     }
 
-    private BusinessHours findOrCreateUniqueEntry(Integer giorno) {
-        List<BusinessHours> matches = businessHoursRepository.findAllByGiorno(giorno);
+    private BusinessHours findOrCreateUniqueEntry(long shopId, Integer giorno) {
+        List<BusinessHours> matches = new ArrayList<>(businessHoursRepository.findAllByShopIdAndGiorno(shopId, giorno));
 
         if (matches.isEmpty()) {
             BusinessHours newEntry = new BusinessHours();
+            newEntry.setShopId(shopId);
             newEntry.setGiorno(giorno);
             return newEntry;
         }
@@ -97,11 +110,12 @@ public class BusinessHoursService {
         return entity;
     }
 
-    private List<BusinessHours> createDefaultHours() {
+    private List<BusinessHours> createDefaultHours(long shopId) {
         List<BusinessHours> defaults = new ArrayList<>();
 
         for (int day = 0; day < 7; day++) {
             BusinessHours entry = new BusinessHours();
+            entry.setShopId(shopId);
             entry.setGiorno(day);
             if (day == 0) {
                 entry.setAperto(false);
@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CapacityHeatmapResponse;
+import com.example.demo.event.AppointmentChangedEvent;
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.model.Appointments;
+import com.example.demo.model.BusinessHours;
+import com.example.demo.repository.AppointmentsRepository;
+import com.example.demo.repository.BarbersRepository;
+import com.example.demo.repository.BusinessHoursRepository;
+import com.example.demo.util.ShopContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class CapacityHeatmapService {
+
+    private static final int HOURS = 24;
+    private static final int MAX_CACHED_MONTHS = 96;
+
+    @Autowired
+    private AppointmentsRepository appointmentsRepository;
+
+    @Autowired
+    private BarbersRepository barbersRepository;
+
+    @Autowired
+    private BusinessHoursRepository businessHoursRepository;
+
+    @Value("${app.heatmap.max-age:5m}")
+    private Duration maxAge;
+
+    private final Map<ShopMonth, Entry> months = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation, so a heatmap computed across one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Gets the occupancy heatmap of a month in the current shop. The bookings of the whole month
+     * are read with one grouped query and spread minute by minute over the hours they cover; the
+     * result is kept until a booking of that month or a catalog changes, and at most
+     * {@code app.heatmap.max-age}, which bounds what a lagging replica can leave in it.
+     *
+     * @param month the month
+     * @return the heatmap
+     */
+    @Transactional(readOnly = true)
+    public CapacityHeatmapResponse getHeatmap(YearMonth month) {
+        ShopMonth key = new ShopMonth(ShopContext.currentShopId(), month);
+        Entry cached = months.get(key);
+        if (cached != null && !cached.isExpired(maxAge)) {
+            return cached.heatmap();
+        }
+        long stamp = generation.get();
+        CapacityHeatmapResponse heatmap = compute(key.shopId(), month);
+        if (months.size() >= MAX_CACHED_MONTHS) {
+            months.clear();
+        }
+        // Invalidations bump the generation before removing, so either this sees the bump or
+        // the removal runs after the entry is stored
+        months.compute(key, (k, previous) -> generation.get() == stamp ? new Entry(heatmap, System.nanoTime()) : previous);
+        return heatmap;
+    }
+
+    private CapacityHeatmapResponse compute(long shopId, YearMonth month) {
+        int days = month.lengthOfMonth();
+        long barbers = barbersRepository.countByShopId(shopId) - barbersRepository.countByShopIdAndIsActiveFalse(shopId);
+        Map<Integer, BusinessHours> hoursByDay = businessHoursRepository.findByShopId(shopId).stream()
+                .collect(Collectors.toMap(BusinessHours::getGiorno, Function.identity(), (first, second) -> first));
+
+        // Booked minutes per day and hour
+        long[][] booked = new long[days][HOURS];
+        for (AppointmentsRepository.SlotLoad load : appointmentsRepository.aggregateLoad(shopId,
+                month.atDay(1), month.atEndOfMonth(), Appointments.StatoAppuntamento.CONFERMATO)) {
+            int day = load.getData().getDayOfMonth() - 1;
+            int start = DayTimeline.minutes(load.getOrarioInizio());
+            int end = Math.min(start + load.getDurata(), HOURS * 60);
+            long count = load.getPrenotazioni();
+            for (int minute = start; minute < end; ) {
+                int hour = minute / 60;
+                int next = Math.min(end, (hour + 1) * 60);
+                booked[day][hour] += (next - minute) * count;
+                minute = next;
+            }
+        }
+
+        List<CapacityHeatmapResponse.DayOccupancy> result = new ArrayList<>(days);
+        for (int day = 0; day < days; day++) {
+            LocalDate date = month.atDay(day + 1);
+            BusinessHours businessHours = hoursByDay.get(date.getDayOfWeek().getValue() % 7);
+            int open = 0;
+            int close = 0;
+            if (businessHours != null && businessHours.isAperto()
+                    && businessHours.getApertura() != null && businessHours.getChiusura() != null) {
+                open = DayTimeline.minutes(businessHours.getApertura());
+                close = DayTimeline.minutes(businessHours.getChiusura());
+            }
+
+            double[] hourly = new double[HOURS];
+            long dayBooked = 0;
+            long dayCapacity = 0;
+            for (int hour = 0; hour < HOURS; hour++) {
+                long capacity = Math.max(0, Math.min(close, (hour + 1) * 60) - Math.max(open, hour * 60)) * barbers;
+                hourly[hour] = ratio(booked[day][hour], capacity);
+                dayBooked += booked[day][hour];
+                dayCapacity += capacity;
+            }
+            result.add(new CapacityHeatmapResponse.DayOccupancy(date, ratio(dayBooked, dayCapacity), hourly));
+        }
+        return new CapacityHeatmapResponse(month, barbers, result);
+    }
+
+    private double ratio(long booked, long capacity) {
+        if (capacity <= 0) {
+            return 0;
+        }
+        return Math.round(Math.min(1.0, (double) booked / capacity) * 1000) / 1000.0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentChanged(AppointmentChangedEvent event) {
+        YearMonth month = YearMonth.from(event.data());
+        generation.incrementAndGet();
+        months.keySet().removeIf(key -> key.month().equals(month));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Users and new shops do not change the occupancy of existing ones
+        if (event.catalog() == CatalogChangedEvent.Catalog.USERS || event.catalog() == CatalogChangedEvent.Catalog.SHOPS) {
+            return;
+        }
+        generation.incrementAndGet();
+        months.clear();
+    }
+
+    private record ShopMonth(long shopId, YearMonth month) {
+    }
+
+    private record Entry(CapacityHeatmapResponse heatmap, long loadedAt) {
+
+        boolean isExpired(Duration maxAge) {
+            return System.nanoTime() - loadedAt > maxAge.toNanos();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BusinessHours;
+import com.example.demo.repository.AppointmentsRepository.BookedSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The free intervals of a barber on one day, in minutes from midnight: the opening hours minus
+ * the confirmed appointments. Built once per barber-day and then queried in memory.
+ * <p>
+ * A prefix sum of the free minutes answers "is this block free?" in constant time, so slot
+ * grids can be stepped as finely as needed without extra queries.
+ */
+final class DayTimeline {
+
+    private static final int END_OF_DAY = 24 * 60;
+
+    private final int[] freeBefore = new int[END_OF_DAY + 1];
+
+    private DayTimeline(int[] gapStarts, int[] gapEnds) {
+        boolean[] free = new boolean[END_OF_DAY];
+        for (int i = 0; i < gapStarts.length; i++) {
+            Arrays.fill(free, gapStarts[i], gapEnds[i], true);
+        }
+        for (int minute = 0; minute < END_OF_DAY; minute++) {
+            freeBefore[minute + 1] = freeBefore[minute] + (free[minute] ? 1 : 0);
+        }
+    }
+
+    /**
+     * Builds the timeline of a day. Without shop hours the whole day is bookable, as for single bookings.
+     *
+     * @param businessHours the shop hours of that weekday, may be null
+     * @param booked        the confirmed appointments of the barber on that day
+     * @return the timeline
+     */
+    static DayTimeline of(BusinessHours businessHours, List<BookedSlot> booked) {
+        if (businessHours != null && !businessHours.isAperto()) {
+            return new DayTimeline(new int[0], new int[0]);
+        }
+        int open = opening(businessHours);
+        int close = closing(businessHours);
+
+        List<BookedSlot> sorted = new ArrayList<>(booked);
+        sorted.sort(Comparator.comparing(BookedSlot::getOrarioInizio));
+
+        int[] starts = new int[sorted.size() + 1];
+        int[] ends = new int[sorted.size() + 1];
+        int count = 0;
+        int cursor = open;
+        for (BookedSlot slot : sorted) {
+            int start = minutes(slot.getOrarioInizio());
+            int end = start + slot.getDurata();
+            if (start > cursor && cursor < close) {
+                starts[count] = cursor;
+                ends[count++] = Math.min(start, close);
+            }
+            cursor = Math.max(cursor, end);
+        }
+        if (cursor < close) {
+            starts[count] = cursor;
+            ends[count++] = close;
+        }
+        return new DayTimeline(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    /**
+     * Tells whether a block of the given length starting at the given time is entirely free.
+     *
+     * @param start    the start time
+     * @param duration the length in minutes
+     * @return true if the block fits in a single free interval
+     */
+    boolean fits(LocalTime start, int duration) {
+        int from = minutes(start);
+        int to = from + duration;
+        return to <= END_OF_DAY && freeBefore[to] - freeBefore[from] == duration;
+    }
+
+    /**
+     * Gets the starts of a slot grid at which a block of the given length fits, as offered for single services.
+     *
+     * @param duration the length in minutes
+     * @param origin   the first start of the grid, in minutes from midnight
+     * @param step     the grid step in minutes
+     * @return the start times, in order
+     */
+    List<LocalTime> starts(int duration, int origin, int step) {
+        List<LocalTime> starts = new ArrayList<>();
+        if (duration <= 0 || step <= 0) {
+            return starts;
+        }
+        for (int start = nextFit(origin, duration, origin, step); start >= 0;
+             start = nextFit(start + step, duration, origin, step)) {
+            starts.add(LocalTime.of(start / 60, start % 60));
+        }
+        return starts;
+    }
+
+    /**
+     * Gets the first start of a slot grid, at or after a given minute, where a block of the given length fits.
+     *
+     * @param from     the earliest acceptable start, in minutes from midnight
+     * @param duration the length in minutes
+     * @param origin   the first start of the grid, in minutes from midnight
+     * @param step     the grid step in minutes
+     * @return the start in minutes from midnight, or -1 if nothing fits that day
+     */
+    int nextFit(int from, int duration, int origin, int step) {
+        int start = from <= origin ? origin : origin + (from - origin + step - 1) / step * step;
+        for (; start + duration <= END_OF_DAY; start += step) {
+            if (freeBefore[start + duration] - freeBefore[start] == duration) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tells whether a block lies within the shop hours of its day, regardless of bookings.
+     *
+     * @param businessHours the shop hours of that weekday, may be null
+     * @param start         the start time
+     * @param duration      the length in minutes
+     * @return true if the shop is open for the whole block
+     */
+    static boolean withinHours(BusinessHours businessHours, LocalTime start, int duration) {
+        if (businessHours != null && !businessHours.isAperto()) {
+            return false;
+        }
+        int from = minutes(start);
+        return from >= opening(businessHours) && from + duration <= closing(businessHours);
+    }
+
+    static int opening(BusinessHours businessHours) {
+        return businessHours != null && businessHours.getApertura() != null ? minutes(businessHours.getApertura()) : 0;
+    }
+
+    private static int closing(BusinessHours businessHours) {
+        return businessHours != null && businessHours.getChiusura() != null ? minutes(businessHours.getChiusura()) : END_OF_DAY;
+    }
+
+    static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.demo.service;
 
+import com.example.demo.event.CatalogChangedEvent;
 import com.example.demo.model.Services;
 import com.example.demo.repository.ServicesRepository;
+import com.example.demo.util.ShopContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,23 +19,31 @@ public class ServicesService {
     @Autowired
     private ServicesRepository servicesRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Creates a new service.
      *
      * @param service the service to create
      * @return the created service
      */
+    @Transactional
     public Services createService(@NonNull Services service) {
-        return servicesRepository.save(service);
+        service.setShopId(ShopContext.currentShopId());
+        Services saved = servicesRepository.save(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SERVICES));
+        return saved;
     }
 
     /**
-     * Gets all services.
+     * Gets all services of the current shop.
      *
      * @return the list of services
      */
+    @Transactional(readOnly = true)
     public List<Services> getAllServices() {
-        return servicesRepository.findAll();
+        return servicesRepository.findByShopId(ShopContext.currentShopId());
     }
 
     /**
@@ -40,6 +52,7 @@ public class ServicesService {
      * @param id the service id
      * @return the service
      */
+    @Transactional(readOnly = true)
     public Optional<Services> getServiceById(@NonNull Long id) {
         return servicesRepository.findById(id);
     }
@@ -51,6 +64,7 @@ public class ServicesService {
      * @param serviceDetails the service details
      * @return the updated service
      */
+    @Transactional
     public Services updateService(Long id, Services serviceDetails) {
         Services service = servicesRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Service not found"));
@@ -60,7 +74,9 @@ public class ServicesService {
         service.setDurata(serviceDetails.getDurata());
         service.setPrezzo(serviceDetails.getPrezzo());
 
-        return servicesRepository.save(service);
+        Services saved = servicesRepository.save(service);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SERVICES));
+        return saved;
     }
 
     /**
@@ -68,7 +84,9 @@ public class ServicesService {
      *
      * @param id the service id
      */
+    @Transactional
     public void deleteService(@NonNull Long id) {
         servicesRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SERVICES));
     }
 }
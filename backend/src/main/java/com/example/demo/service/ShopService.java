@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.event.CatalogChangedEvent;
+import com.example.demo.model.Shop;
+import com.example.demo.repository.ShopsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class ShopService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShopService.class);
+
+    @Autowired
+    private ShopsRepository shopsRepository;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Gets the active shops.
+     *
+     * @return the list of shops, by id
+     */
+    @Transactional(readOnly = true)
+    public List<Shop> getActiveShops() {
+        return shopsRepository.findByIsActiveTrueOrderByIdAsc();
+    }
+
+    /**
+     * Creates a new shop with the default week of hours.
+     *
+     * @param shop the shop to create
+     * @return the created shop
+     */
+    @Transactional
+    public Shop createShop(Shop shop) {
+        if (shop.getNome() == null || shop.getNome().isBlank()) {
+            throw new IllegalArgumentException("Il nome della sede è obbligatorio");
+        }
+        shop.setId(null);
+        shop.setIsActive(true);
+        Shop saved = shopsRepository.save(shop);
+        businessHoursService.ensureDefaultHours(saved.getId());
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.SHOPS));
+        return saved;
+    }
+
+    /**
+     * Creates the default shop on a fresh database, so that rows and requests without a shop have one to belong to,
+     * and gives every active shop without hours the default week.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void ensureDefaultShop() {
+        if (!shopsRepository.existsById(Shop.DEFAULT_ID)) {
+            createDefaultShop();
+        }
+        for (Shop shop : shopsRepository.findByIsActiveTrueOrderByIdAsc()) {
+            businessHoursService.ensureDefaultHours(shop.getId());
+        }
+    }
+
+    private void createDefaultShop() {
+        Shop shop = new Shop();
+        shop.setNome("Sede principale");
+        shop.setIsActive(true);
+        Shop saved = shopsRepository.save(shop);
+        if (saved.getId() != Shop.DEFAULT_ID) {
+            logger.warn("La sede predefinita ha id {} invece di {}: eseguire database/migration_multi_shop.sql",
+                    saved.getId(), Shop.DEFAULT_ID);
+        }
+    }
+}
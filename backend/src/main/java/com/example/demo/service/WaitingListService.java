@@ -1,10 +1,15 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.WaitingListRequest;
+import com.example.demo.event.AppointmentChangedEvent;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
 
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +22,8 @@ import java.util.Optional;
 @Service
 public class WaitingListService {
 
+    private static final Logger logger = LoggerFactory.getLogger(WaitingListService.class);
+
     @Autowired
     private WaitingListRepository waitingListRepository;
 
@@ -32,6 +39,12 @@ public class WaitingListService {
     @Autowired
     private AppointmentsRepository appointmentsRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BookingOutboxService bookingOutboxService;
+
     /**
      * Adds a customer to the waiting list.
      *
@@ -40,17 +53,24 @@ public class WaitingListService {
      */
     @Transactional
     public WaitingList addToWaitingList(WaitingListRequest request) {
-        Users customer = usersRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new RuntimeException("Cliente non trovato"));
-        Barbers barber = barbersRepository.findById(request.getBarberId())
-                .orElseThrow(() -> new RuntimeException("Barbiere non trovato"));
-        Services service = servicesRepository.findById(request.getServiceId())
-                .orElseThrow(() -> new RuntimeException("Servizio non trovato"));
+        // One existence query, then the foreign keys are set from references without loading the rows
+        if (!barbersRepository.existsBookingReferences(request.getBarberId(), request.getCustomerId(), request.getServiceId())) {
+            if (!usersRepository.existsById(request.getCustomerId())) {
+                throw new RuntimeException("Cliente non trovato");
+            }
+            if (!barbersRepository.existsById(request.getBarberId())) {
+                throw new RuntimeException("Barbiere non trovato");
+            }
+            if (!servicesRepository.existsById(request.getServiceId())) {
+                throw new RuntimeException("Servizio non trovato");
+            }
+            throw new RuntimeException("Servizio non disponibile nella sede del barbiere");
+        }
 
         WaitingList waitingList = new WaitingList();
-        waitingList.setCustomer(customer);
-        waitingList.setBarber(barber);
-        waitingList.setService(service);
+        waitingList.setCustomer(usersRepository.getReferenceById(request.getCustomerId()));
+        waitingList.setBarber(barbersRepository.getReferenceById(request.getBarberId()));
+        waitingList.setService(servicesRepository.getReferenceById(request.getServiceId()));
         waitingList.setDataRichiesta(request.getDataRichiesta());
         waitingList.setDataIscrizione(LocalDateTime.now());
         waitingList.setStato(WaitingList.StatoListaAttesa.IN_ATTESA);
@@ -64,6 +84,7 @@ public class WaitingListService {
      * @param customerId the customer id
      * @return the list of waiting list entries
      */
+    @Transactional(readOnly = true)
     public List<WaitingList> getWaitingListByCustomer(Long customerId) {
         return waitingListRepository.findByCustomerId(customerId);
     }
@@ -75,11 +96,13 @@ public class WaitingListService {
      * @param data     the date
      * @return the list of waiting list entries
      */
+    @Transactional(readOnly = true)
     public List<WaitingList> getActiveWaitingListByBarberAndDate(Long barberId, java.time.LocalDate data) {
         return waitingListRepository.findByBarberIdAndDataRichiestaAndStatoOrderByDataIscrizioneAsc(
                 barberId, data, WaitingList.StatoListaAttesa.IN_ATTESA);
     }
 
+    @Timed(value = "booking.waitinglist.promotion.direct", description = "Time to hand a freed slot to the waiting list")
     @Transactional
     public void processWaitingListForCancelledAppointment(Long barberId, Long serviceId, LocalDate date) {
         // Trova il primo in coda per questo barbiere/servizio/data
@@ -111,14 +134,17 @@ public class WaitingListService {
             newAppointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
             
             appointmentsRepository.save(newAppointment);
+            eventPublisher.publishEvent(new AppointmentChangedEvent(newAppointment.getId(), barberId, date));
             
             // Aggiorna stato lista d'attesa
             waiting.setStato(WaitingList.StatoListaAttesa.CONFERMATO);
             waitingListRepository.save(waiting);
+            bookingOutboxService.record(BookingOutbox.TipoEvento.PRENOTATO, newAppointment);
+            bookingOutboxService.record(BookingOutbox.TipoEvento.LISTA_ATTESA_PROMOSSA, newAppointment);
             
-            System.out.println("✅ Slot assegnato automaticamente a: " + waiting.getCustomer().getEmail());
+            logger.info("Slot assegnato automaticamente alla voce di lista d'attesa {}", waiting.getId());
         } else {
-            System.out.println("ℹ️ Nessuno in lista d'attesa per questo slot");
+            logger.debug("Nessuno in lista d'attesa per barbiere {} il {}", barberId, date);
         }
     }
 
@@ -136,6 +162,7 @@ public class WaitingListService {
      * @param waitingListId the waiting list entry id
      * @return the position in the queue
      */
+    @Transactional(readOnly = true)
     public Integer getPositionInQueue(Long waitingListId) {
         WaitingList entry = waitingListRepository.findById(waitingListId)
                 .orElseThrow(() -> new RuntimeException("Voce lista d'attesa non trovata"));
@@ -0,0 +1,38 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Shop;
+
+/**
+ * The shop the current request works on, set by the shop filter from the {@code X-Shop-Id} header.
+ * Code running outside a request, or on another thread, sees the default shop unless it sets one.
+ */
+public final class ShopContext {
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private ShopContext() {
+    }
+
+    /**
+     * Gets the shop of the current request.
+     *
+     * @return the shop id, the default shop when none was selected
+     */
+    public static long currentShopId() {
+        Long shopId = CURRENT.get();
+        return shopId != null ? shopId : Shop.DEFAULT_ID;
+    }
+
+    /**
+     * Runs the rest of the current request for a shop.
+     *
+     * @param shopId the shop id
+     */
+    public static void set(long shopId) {
+        CURRENT.set(shopId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
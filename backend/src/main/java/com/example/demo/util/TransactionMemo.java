@@ -0,0 +1,82 @@
+package com.example.demo.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes reads for the duration of the current transaction, so nested booking steps that need
+ * the same service, shop hours or barber-day share one load. The memo is bound to the thread with
+ * {@link TransactionSynchronizationManager} and dropped when the transaction completes; outside a
+ * transaction every call simply runs the loader.
+ * <p>
+ * Callers that write data they have memoized must {@link #evict} the affected key.
+ */
+public final class TransactionMemo {
+
+    private static final Object RESOURCE_KEY = TransactionMemo.class;
+
+    private TransactionMemo() {
+    }
+
+    /**
+     * Gets a value from the memo, loading it on first use in the transaction.
+     *
+     * @param kind   the kind of value, e.g. "service"
+     * @param id     the identifier of the value within its kind
+     * @param loader loads the value on a miss
+     * @return the memoized value
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(String kind, Object id, Supplier<T> loader) {
+        Map<Key, Object> memo = memo();
+        if (memo == null) {
+            return loader.get();
+        }
+        Key key = new Key(kind, id);
+        if (memo.containsKey(key)) {
+            return (T) memo.get(key);
+        }
+        T value = loader.get();
+        memo.put(key, value);
+        return value;
+    }
+
+    /**
+     * Forgets a memoized value after it has been written.
+     *
+     * @param kind the kind of value
+     * @param id   the identifier of the value within its kind
+     */
+    public static void evict(String kind, Object id) {
+        Map<Key, Object> memo = memo();
+        if (memo != null) {
+            memo.remove(new Key(kind, id));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Key, Object> memo() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<Key, Object> memo = (Map<Key, Object>) TransactionSynchronizationManager.getResource(RESOURCE_KEY);
+        if (memo == null) {
+            memo = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(RESOURCE_KEY, memo);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+                }
+            });
+        }
+        return memo;
+    }
+
+    private record Key(String kind, Object id) {
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.cache;
+
+import com.example.demo.event.CatalogChangedEvent.Catalog;
+import com.example.demo.model.Services;
+import com.example.demo.model.Users;
+import com.example.demo.repository.ServicesRepository;
+import com.example.demo.repository.UsersRepository;
+import com.example.demo.service.ServicesService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.invalidation.transport=jdbc")
+@ActiveProfiles("test")
+public class InvalidationBusTest {
+
+    @Autowired
+    private JdbcInvalidationTransport transport;
+
+    @Autowired
+    private ServicesService servicesService;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void peerCatalogChange_shouldEvictTheSecondLevelCacheAndBumpTheVersion() {
+        Services service = new Services();
+        service.setNome("Peer Service");
+        service.setDurata(30);
+        Long id = servicesRepository.save(service).getId();
+        servicesRepository.findById(id);
+        assertTrue(entityManagerFactory.getCache().contains(Services.class, id));
+        long before = resourceVersions.catalog(Catalog.SERVICES).version();
+
+        jdbcTemplate.update("INSERT INTO cache_invalidations (origin, catalog, created_at) VALUES (?, ?, ?)",
+                "peer-node", Catalog.SERVICES.name(), Timestamp.from(Instant.now()));
+        transport.poll();
+
+        assertFalse(entityManagerFactory.getCache().contains(Services.class, id));
+        assertTrue(resourceVersions.catalog(Catalog.SERVICES).version() > before);
+    }
+
+    @Test
+    void peerUserChange_shouldEvictTheUsersRegion() {
+        Users user = new Users();
+        user.setEmail("peer-user@test.com");
+        user.setPassword("password");
+        Long id = usersRepository.save(user).getId();
+        usersRepository.findById(id);
+        assertTrue(entityManagerFactory.getCache().contains(Users.class, id));
+
+        jdbcTemplate.update("INSERT INTO cache_invalidations (origin, catalog, created_at) VALUES (?, ?, ?)",
+                "peer-node", Catalog.USERS.name(), Timestamp.from(Instant.now()));
+        transport.poll();
+
+        assertFalse(entityManagerFactory.getCache().contains(Users.class, id));
+    }
+
+    @Test
+    void localCatalogChange_shouldBeBroadcastToPeers() {
+        Services service = new Services();
+        service.setNome("Broadcast Service");
+        service.setDurata(30);
+        servicesService.createService(service);
+
+        Integer sent = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cache_invalidations WHERE origin <> 'peer-node' AND catalog = ?",
+                Integer.class, Catalog.SERVICES.name());
+        assertTrue(sent != null && sent > 0);
+    }
+}
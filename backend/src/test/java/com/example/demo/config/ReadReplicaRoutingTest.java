@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=password",
+        "app.datasource.replica.stickiness=30s"
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_shouldUseTheReplica() {
+        assertEquals("REPLICA", databaseIn(true));
+        assertEquals("PRIMARY", databaseIn(false));
+    }
+
+    @Test
+    void readsAfterAWrite_shouldStayOnThePrimaryForTheSameUser() {
+        authenticate("writer@test.com");
+        write();
+        assertEquals("PRIMARY", databaseIn(true));
+
+        authenticate("reader@test.com");
+        assertEquals("REPLICA", databaseIn(true));
+    }
+
+    @Test
+    void readWriteTransactionsWithoutWrites_shouldNotPin() {
+        authenticate("browser@test.com");
+        assertEquals("PRIMARY", databaseIn(false));
+        assertEquals("REPLICA", databaseIn(true));
+    }
+
+    @Test
+    void anonymousWrites_shouldNotPinOtherAnonymousReads() {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        write();
+        assertEquals("REPLICA", databaseIn(true));
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createNativeQuery("UPDATE shops SET nome = nome WHERE id = 1").executeUpdate());
+    }
+
+    private void authenticate(String username) {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(username, null, "CLIENTE");
+        authentication.setAuthenticated(true);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+}
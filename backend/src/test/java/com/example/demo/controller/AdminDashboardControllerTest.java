@@ -0,0 +1,145 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.AppointmentRequest;
+import com.example.demo.model.BarberServices;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.Services;
+import com.example.demo.model.Shop;
+import com.example.demo.model.Users;
+import com.example.demo.repository.BarberServicesRepository;
+import com.example.demo.repository.BarbersRepository;
+import com.example.demo.repository.ServicesRepository;
+import com.example.demo.repository.UsersRepository;
+import com.example.demo.service.BusinessHoursService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AdminDashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private BarbersRepository barbersRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private BarberServicesRepository barberServicesRepository;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    private Users user;
+    private Barbers barber;
+    private Services service;
+
+    @BeforeEach
+    void setUp() {
+        user = new Users();
+        user.setEmail("dashboard@test.com");
+        user.setPassword("password");
+        user = usersRepository.save(user);
+
+        barber = new Barbers();
+        barber.setNome("Dashboard Barber");
+        barber = barbersRepository.save(barber);
+
+        service = new Services();
+        service.setNome("Dashboard Service");
+        service.setDurata(30);
+        service = servicesRepository.save(service);
+
+        BarberServices link = new BarberServices();
+        link.setBarber(barber);
+        link.setService(service);
+        barberServicesRepository.save(link);
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", authorities = "ADMIN")
+    void dashboard_shouldReturnBarbersCatalogHoursAndTheDaysAppointments() throws Exception {
+        LocalDate monday = LocalDate.of(2030, 3, 11);
+        int id = (int) book(monday, LocalTime.of(10, 0));
+
+        // Read right after the admin's own write, from the executor threads
+        mockMvc.perform(get("/admin/dashboard").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.date").value(monday.toString()))
+                .andExpect(jsonPath("$.barbers[?(@.id == " + barber.getId() + ")].serviceIds[*]",
+                        contains(service.getId().intValue())))
+                .andExpect(jsonPath("$.services[*].id", hasItem(service.getId().intValue())))
+                .andExpect(jsonPath("$.businessHours.length()").value(7))
+                .andExpect(jsonPath("$.appointments[*].id", contains(id)));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void capacityHeatmap_shouldReflectNewBookings() throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        LocalDate monday = LocalDate.of(2030, 1, 14);
+
+        mockMvc.perform(get("/admin/capacity-heatmap").param("month", "2030-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.giorni.length()").value(31))
+                .andExpect(jsonPath("$.giorni[13].occupazioneOraria[10]").value(0.0));
+
+        book(monday, LocalTime.of(10, 0));
+
+        mockMvc.perform(get("/admin/capacity-heatmap").param("month", "2030-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.giorni[13].occupazioneOraria[10]", greaterThan(0.0)))
+                .andExpect(jsonPath("$.giorni[13].occupazioneOraria[3]").value(0.0));
+    }
+
+    /**
+     * Books the test customer with the test barber and service, creating the shop hours first.
+     *
+     * @return the id of the new appointment
+     */
+    private long book(LocalDate data, LocalTime orarioInizio) throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        AppointmentRequest appointmentRequest = new AppointmentRequest();
+        appointmentRequest.setCustomerId(user.getId());
+        appointmentRequest.setBarberId(barber.getId());
+        appointmentRequest.setServiceId(service.getId());
+        appointmentRequest.setData(data);
+        appointmentRequest.setOrarioInizio(orarioInizio);
+        MvcResult created = mockMvc.perform(post("/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(appointmentRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
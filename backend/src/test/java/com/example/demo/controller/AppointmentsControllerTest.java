@@ -2,12 +2,18 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.AppointmentRequest;
 import com.example.demo.model.Appointments;
+import com.example.demo.model.BarberServices;
 import com.example.demo.model.Barbers;
 import com.example.demo.model.Services;
+import com.example.demo.model.Shop;
 import com.example.demo.model.Users;
+import com.example.demo.repository.BarberServicesRepository;
 import com.example.demo.repository.BarbersRepository;
 import com.example.demo.repository.ServicesRepository;
+import com.example.demo.repository.ShopsRepository;
 import com.example.demo.repository.UsersRepository;
+import com.example.demo.service.BookingOutboxRelay;
+import com.example.demo.service.BusinessHoursService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,11 +24,22 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
 
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -45,6 +62,18 @@ public class AppointmentsControllerTest {
     @Autowired
     private ServicesRepository servicesRepository;
 
+    @Autowired
+    private BarberServicesRepository barberServicesRepository;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Autowired
+    private ShopsRepository shopsRepository;
+
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+
     private Users user;
     private Barbers barber;
     private Services service;
@@ -69,16 +98,233 @@ public class AppointmentsControllerTest {
     @Test
     @WithMockUser
     void createAppointment_shouldCreateAppointment() throws Exception {
-        AppointmentRequest appointmentRequest = new AppointmentRequest();
-        appointmentRequest.setCustomerId(user.getId());
-        appointmentRequest.setBarberId(barber.getId());
-        appointmentRequest.setServiceId(service.getId());
-        appointmentRequest.setData(LocalDate.now());
-        appointmentRequest.setOrarioInizio(LocalTime.of(10, 0));
+        book(LocalDate.now(), LocalTime.of(10, 0));
+    }
 
-        mockMvc.perform(post("/appointments")
+    @Test
+    @WithMockUser
+    void availableSlots_shouldAnswerNotModified_untilTheDayIsBooked() throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+
+        MvcResult first = mockMvc.perform(get("/appointments/available-slots")
+                        .param("barberId", barber.getId().toString())
+                        .param("serviceId", service.getId().toString())
+                        .param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/appointments/available-slots")
+                        .param("barberId", barber.getId().toString())
+                        .param("serviceId", service.getId().toString())
+                        .param("date", monday.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        book(monday, LocalTime.of(11, 0));
+
+        mockMvc.perform(get("/appointments/available-slots")
+                        .param("barberId", barber.getId().toString())
+                        .param("serviceId", service.getId().toString())
+                        .param("date", monday.toString())
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void appointmentsByDate_shouldFollowBookingsAndCancellations() throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        // Loads the day into the schedule board before it changes
+        mockMvc.perform(get("/appointments/by-date").param("date", monday.toString()))
+                .andExpect(status().isOk());
+
+        int id = (int) book(monday, LocalTime.of(15, 0));
+
+        mockMvc.perform(get("/appointments/by-date").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(id)));
+
+        mockMvc.perform(delete("/appointments/" + id))
+                .andExpect(status().is2xxSuccessful());
+
+        mockMvc.perform(get("/appointments/by-date").param("date", monday.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", not(hasItem(id))));
+    }
+
+    @Test
+    @WithMockUser
+    void nextAvailable_shouldReturnTheEarliestFreeStarts() throws Exception {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        BarberServices link = new BarberServices();
+        link.setBarber(barber);
+        link.setService(service);
+        barberServicesRepository.save(link);
+
+        book(monday, LocalTime.of(9, 0));
+
+        mockMvc.perform(get("/appointments/next-available")
+                        .param("serviceId", service.getId().toString())
+                        .param("from", monday.toString())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].data").value(monday.toString()))
+                .andExpect(jsonPath("$[0].orarioInizio").value("09:30:00"))
+                .andExpect(jsonPath("$[0].barber.id").value(barber.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void services_shouldBeScopedToTheRequestedShop() throws Exception {
+        Shop shop = new Shop();
+        shop.setNome("Seconda sede");
+        shop.setIsActive(true);
+        shop = shopsRepository.save(shop);
+        Services otherService = new Services();
+        otherService.setNome("Other Shop Service");
+        otherService.setDurata(45);
+        otherService.setShopId(shop.getId());
+        otherService = servicesRepository.save(otherService);
+
+        mockMvc.perform(get("/services").header("X-Shop-Id", shop.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(otherService.getId().intValue())))
+                .andExpect(jsonPath("$[*].id", not(hasItem(service.getId().intValue()))));
+
+        mockMvc.perform(get("/services"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", hasItem(service.getId().intValue())))
+                .andExpect(jsonPath("$[*].id", not(hasItem(otherService.getId().intValue()))));
+
+        mockMvc.perform(get("/services").header("X-Shop-Id", "999999"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void updateAppointment_shouldRejectStaleVersions() throws Exception {
+        long id = book(LocalDate.of(2030, 1, 21), LocalTime.of(10, 0));
+
+        // Moving by 15 minutes overlaps only the appointment itself
+        AppointmentRequest appointmentRequest = request(LocalDate.of(2030, 1, 21), LocalTime.of(10, 15));
+        appointmentRequest.setVersion(0L);
+        mockMvc.perform(put("/appointments/" + id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(appointmentRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+
+        appointmentRequest.setOrarioInizio(LocalTime.of(11, 0));
+        mockMvc.perform(put("/appointments/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(appointmentRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.suggerimento").exists());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void updateAppointment_shouldRequireTheVersion() throws Exception {
+        long id = book(LocalDate.of(2030, 2, 11), LocalTime.of(10, 0));
+
+        mockMvc.perform(put("/appointments/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(LocalDate.of(2030, 2, 11), LocalTime.of(10, 15)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "admin@test.com", authorities = "ADMIN")
+    void appointmentHistory_shouldReplayEveryChangeWithItsAuthor() throws Exception {
+        long id = book(LocalDate.of(2030, 2, 4), LocalTime.of(10, 0));
+
+        AppointmentRequest move = request(LocalDate.of(2030, 2, 4), LocalTime.of(10, 30));
+        move.setVersion(0L);
+        mockMvc.perform(put("/appointments/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(move)))
                 .andExpect(status().isOk());
+        mockMvc.perform(delete("/appointments/" + id))
+                .andExpect(status().is2xxSuccessful());
+        bookingOutboxRelay.drain();
+
+        mockMvc.perform(get("/appointments/" + id + "/history"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.passi.length()").value(3))
+                .andExpect(jsonPath("$.passi[0].tipo").value("PRENOTATO"))
+                .andExpect(jsonPath("$.passi[0].attore").value("admin@test.com"))
+                .andExpect(jsonPath("$.passi[1].tipo").value("SPOSTATO"))
+                .andExpect(jsonPath("$.passi[1].orarioInizio").value("10:30:00"))
+                .andExpect(jsonPath("$.passi[1].modifiche[0]").value("orarioInizio"))
+                .andExpect(jsonPath("$.passi[2].stato").value("ANNULLATO"))
+                .andExpect(jsonPath("$.passi[2].modifiche[0]").value("stato"));
+
+        mockMvc.perform(get("/appointments/999999/history"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void createAppointment_shouldReplayRetriesWithTheSameIdempotencyKey() throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        AppointmentRequest appointmentRequest = request(LocalDate.of(2030, 1, 28), LocalTime.of(10, 0));
+        String body = objectMapper.writeValueAsString(appointmentRequest);
+
+        MvcResult first = mockMvc.perform(post("/appointments")
+                        .header("Idempotency-Key", "retry-test-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+
+        MvcResult retry = mockMvc.perform(post("/appointments")
+                        .header("Idempotency-Key", "retry-test-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andReturn();
+
+        assertEquals(
+                first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+
+        appointmentRequest.setOrarioInizio(LocalTime.of(11, 0));
+        mockMvc.perform(post("/appointments")
+                        .header("Idempotency-Key", "retry-test-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(appointmentRequest)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    /**
+     * Books the test customer with the test barber and service, creating the shop hours first.
+     *
+     * @return the id of the new appointment
+     */
+    private long book(LocalDate data, LocalTime orarioInizio) throws Exception {
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+        MvcResult created = mockMvc.perform(post("/appointments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request(data, orarioInizio))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private AppointmentRequest request(LocalDate data, LocalTime orarioInizio) {
+        AppointmentRequest appointmentRequest = new AppointmentRequest();
+        appointmentRequest.setCustomerId(user.getId());
+        appointmentRequest.setBarberId(barber.getId());
+        appointmentRequest.setServiceId(service.getId());
+        appointmentRequest.setData(data);
+        appointmentRequest.setOrarioInizio(orarioInizio);
+        return appointmentRequest;
     }
 }
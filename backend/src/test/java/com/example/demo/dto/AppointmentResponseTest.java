@@ -0,0 +1,91 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.Appointments;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.Services;
+import com.example.demo.model.Users;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AppointmentResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void leanResponse_shouldBeFarSmallerThanTheEntityGraph() throws Exception {
+        List<Appointments> appointments = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            appointments.add(appointment(i));
+        }
+        List<AppointmentResponse> responses = appointments.stream()
+                .map(AppointmentResponse::from)
+                .collect(Collectors.toList());
+
+        byte[] entityJson = objectMapper.writeValueAsBytes(appointments);
+        byte[] responseJson = objectMapper.writeValueAsBytes(responses);
+
+        double ratio = (double) entityJson.length / responseJson.length;
+        assertTrue(ratio > 2, "entity graph " + entityJson.length + " bytes, lean response " + responseJson.length + " bytes");
+        assertFalse(new String(responseJson).contains("password"));
+    }
+
+    private Appointments appointment(long id) {
+        Users customer = new Users();
+        customer.setId(id);
+        customer.setNome("Marco");
+        customer.setCognome("Rossi");
+        customer.setEmail("marco.rossi" + id + "@example.com");
+        customer.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5Y8DT8uMerOAZZU1iG8BtW/6p16ea");
+        customer.setRuolo(Users.Role.CLIENTE);
+        customer.setData_creazione(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        Users barberUser = new Users();
+        barberUser.setId(1000 + id);
+        barberUser.setNome("Luca");
+        barberUser.setCognome("Bianchi");
+        barberUser.setEmail("luca.bianchi@barbershop.local");
+        barberUser.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5Y8DT8uMerOAZZU1iG8BtW/6p16ea");
+        barberUser.setRuolo(Users.Role.ADMIN);
+        barberUser.setData_creazione(LocalDateTime.of(2024, 1, 1, 10, 0));
+
+        Barbers barber = new Barbers();
+        barber.setId(1L);
+        barber.setNome("Luca");
+        barber.setCognome("Bianchi");
+        barber.setEsperienza("8 anni di esperienza in tagli classici e barbe impeccabili");
+        barber.setSpecialita("Rifiniture classiche");
+        barber.setIsActive(true);
+        barber.setUser(barberUser);
+
+        Services service = new Services();
+        service.setId(2L);
+        service.setNome("Taglio + Barba");
+        service.setDurata(45);
+        service.setPrezzo(28.0f);
+        service.setDescrizione("Servizio completo con styling barba e capelli");
+
+        Appointments appointment = new Appointments();
+        appointment.setId(id);
+        appointment.setCustomer(customer);
+        appointment.setBarber(barber);
+        appointment.setService(service);
+        appointment.setData(LocalDate.of(2030, 1, 7));
+        appointment.setOrarioInizio(LocalTime.of(9, 0).plusMinutes(15 * id));
+        appointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
+        return appointment;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitFilter filter = new RateLimitFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "ipCapacity", 2);
+        ReflectionTestUtils.setField(filter, "ipRefillPerSecond", 0.1);
+        ReflectionTestUtils.setField(filter, "userCapacity", 2);
+        ReflectionTestUtils.setField(filter, "userRefillPerSecond", 0.1);
+        ReflectionTestUtils.setField(filter, "acquireThreshold", Duration.ofMillis(100));
+    }
+
+    @Test
+    void filter_shouldAnswer429WithRetryAfter_whenTheBucketIsEmpty() throws Exception {
+        assertEquals(200, perform("GET", "/services").getStatus());
+        assertEquals(200, perform("GET", "/services").getStatus());
+
+        MockHttpServletResponse rejected = perform("GET", "/services");
+
+        assertEquals(429, rejected.getStatus());
+        // One token every 10 seconds
+        assertEquals("10", rejected.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.counter("http.server.requests.rejected", "reason", "rate_limit").count());
+    }
+
+    @Test
+    void filter_shouldShedReadsButNotWrites_whenConnectionWaitsExceedTheThreshold() throws Exception {
+        ReflectionTestUtils.setField(filter, "ipCapacity", 1000);
+        Timer.builder("hikaricp.connections.acquire").register(meterRegistry).record(Duration.ofSeconds(1));
+
+        int shed = 0;
+        for (int i = 0; i < 50; i++) {
+            MockHttpServletResponse response = perform("GET", "/appointments/available-slots");
+            if (response.getStatus() == 503) {
+                assertEquals("2", response.getHeader("Retry-After"));
+                shed++;
+            }
+            assertEquals(200, perform("POST", "/appointments").getStatus());
+        }
+
+        // Ten times the threshold sheds at the 90% cap
+        assertTrue(shed > 25, "shed " + shed + " of 50");
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    void tryConsume_shouldGrantExactlyTheCapacityUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(100, 0.001);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.submit(() -> {
+                if (bucket.tryConsume() == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+        assertTrue(bucket.tryConsume() > TimeUnit.SECONDS.toNanos(1));
+    }
+}
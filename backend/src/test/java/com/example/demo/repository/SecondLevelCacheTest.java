@@ -0,0 +1,50 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Services;
+import com.example.demo.model.Shop;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    @Autowired
+    private BusinessHoursRepository businessHoursRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void repeatedReferenceReads_shouldNotReachTheDatabase() {
+        Services service = new Services();
+        service.setNome("Cached Service");
+        service.setDurata(30);
+        Long id = servicesRepository.save(service).getId();
+        servicesRepository.findById(id);
+        businessHoursRepository.findByShopIdAndGiorno(Shop.DEFAULT_ID, 1);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        for (int i = 0; i < 5; i++) {
+            servicesRepository.findById(id);
+            businessHoursRepository.findByShopIdAndGiorno(Shop.DEFAULT_ID, 1);
+        }
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 5);
+        assertTrue(statistics.getQueryCacheHitCount() >= 5);
+    }
+}
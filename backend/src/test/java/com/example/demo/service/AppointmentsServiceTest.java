@@ -1,21 +1,37 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.AppointmentRequest;
+import com.example.demo.dto.AvailableSlotResponse;
+import com.example.demo.dto.RecurringAppointmentRequest;
+import com.example.demo.dto.RecurringAppointmentResponse;
 import com.example.demo.model.*;
 import com.example.demo.repository.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -37,6 +53,18 @@ public class AppointmentsServiceTest {
     @Mock
     private WaitingListRepository waitingListRepository;
 
+    @Mock
+    private BusinessHoursRepository businessHoursRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookingOutboxService bookingOutboxService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AppointmentsService appointmentsService;
 
@@ -56,8 +84,8 @@ public class AppointmentsServiceTest {
     void createAppointment_shouldCreateAppointment_whenSlotIsAvailable() {
         Services service = new Services();
         service.setDurata(30);
-        when(usersRepository.findById(1L)).thenReturn(Optional.of(new Users()));
-        when(barbersRepository.findById(1L)).thenReturn(Optional.of(new Barbers()));
+        when(barbersRepository.findLockedById(1L)).thenReturn(Optional.of(new Barbers()));
+        when(barbersRepository.existsBookingReferences(1L, 1L, 1L)).thenReturn(true);
         when(servicesRepository.findById(1L)).thenReturn(Optional.of(service));
         when(appointmentsRepository.save(any(Appointments.class))).thenReturn(new Appointments());
 
@@ -70,11 +98,9 @@ public class AppointmentsServiceTest {
     void createAppointment_shouldThrowException_whenSlotIsNotAvailable() {
         Services service = new Services();
         service.setDurata(30);
+        when(barbersRepository.findLockedById(1L)).thenReturn(Optional.of(new Barbers()));
         when(servicesRepository.findById(1L)).thenReturn(Optional.of(service));
-        Appointments existingAppointment = new Appointments();
-        existingAppointment.setOrarioInizio(LocalTime.of(10, 0));
-        existingAppointment.setService(service);
-        when(appointmentsRepository.findByBarberIdAndDataAndStato(any(), any(), any())).thenReturn(java.util.Collections.singletonList(existingAppointment));
+        when(appointmentsRepository.existsOverlap(any(), any(), any(), any(), anyInt(), any())).thenReturn(true);
 
         assertThrows(RuntimeException.class, () -> {
             appointmentsService.createAppointment(appointmentRequest);
@@ -93,4 +119,87 @@ public class AppointmentsServiceTest {
         verify(appointmentsRepository).save(any(Appointments.class));
         verify(waitingListRepository).findFirstByBarberIdAndServiceIdAndDataRichiestaAndStatoOrderByDataIscrizioneAsc(any(), any(), any(), any());
     }
+
+    @Test
+    void createRecurringAppointments_shouldBookFreeDatesAndReportConflicts() {
+        Services service = new Services();
+        service.setDurata(30);
+        Barbers barber = new Barbers();
+        barber.setId(1L);
+        when(usersRepository.findById(1L)).thenReturn(Optional.of(new Users()));
+        when(barbersRepository.findLockedById(1L)).thenReturn(Optional.of(barber));
+        when(servicesRepository.findById(1L)).thenReturn(Optional.of(service));
+
+        LocalDate first = LocalDate.of(2030, 1, 7);
+        AppointmentsRepository.BookedSlot existingAppointment = bookedSlot(first.plusWeeks(2), LocalTime.of(10, 15), 30);
+        when(appointmentsRepository.findBookedSlotsOnDates(any(), anyList(), any()))
+                .thenReturn(List.of(existingAppointment));
+        when(appointmentsRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        RecurringAppointmentRequest request = new RecurringAppointmentRequest();
+        request.setCustomerId(1L);
+        request.setBarberId(1L);
+        request.setServiceId(1L);
+        request.setData(first);
+        request.setOrarioInizio(LocalTime.of(10, 0));
+        request.setIntervalloSettimane(2);
+        request.setOccorrenze(3);
+
+        RecurringAppointmentResponse response = appointmentsService.createRecurringAppointments(request);
+
+        assertEquals(List.of(first.plusWeeks(2)), response.getConflicts());
+        assertEquals(2, response.getCreated().size());
+        verify(appointmentsRepository, times(1)).findBookedSlotsOnDates(any(), anyList(), any());
+    }
+
+    @Test
+    void getAvailableSlots_shouldStepByFifteenMinutesAndFindTheEdgeGaps() {
+        List<AvailableSlotResponse> slots = availableSlotsWithStep(15);
+
+        assertEquals(10, slots.size());
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(11, 15)), freeStarts(slots));
+    }
+
+    @Test
+    void getAvailableSlots_shouldStepByFiveMinutesAndFindTheEdgeGaps() {
+        List<AvailableSlotResponse> slots = availableSlotsWithStep(5);
+
+        assertEquals(28, slots.size());
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 5), LocalTime.of(11, 10), LocalTime.of(11, 15)),
+                freeStarts(slots));
+    }
+
+    /**
+     * A 45-minute service on a 9:00-12:00 day booked 9:50-10:30 and 11:00-11:10: it fits only in the
+     * gaps after opening (50 minutes) and before closing (50 minutes), not in the 30 minutes between.
+     */
+    private List<AvailableSlotResponse> availableSlotsWithStep(int step) {
+        ReflectionTestUtils.setField(appointmentsService, "slotStepMinutes", step);
+        LocalDate date = LocalDate.of(2030, 1, 8);
+        Services service = new Services();
+        service.setDurata(45);
+        BusinessHours businessHours = new BusinessHours();
+        businessHours.setAperto(true);
+        businessHours.setApertura(LocalTime.of(9, 0));
+        businessHours.setChiusura(LocalTime.of(12, 0));
+        when(businessHoursRepository.findForBarber(1L, date.getDayOfWeek().getValue() % 7))
+                .thenReturn(Optional.of(businessHours));
+        when(servicesRepository.findById(1L)).thenReturn(Optional.of(service));
+        when(appointmentsRepository.findBookedSlots(1L, date, Appointments.StatoAppuntamento.CONFERMATO))
+                .thenReturn(List.of(bookedSlot(date, LocalTime.of(9, 50), 40), bookedSlot(date, LocalTime.of(11, 0), 10)));
+
+        return appointmentsService.getAvailableSlots(1L, 1L, date);
+    }
+
+    private List<LocalTime> freeStarts(List<AvailableSlotResponse> slots) {
+        return slots.stream()
+                .filter(AvailableSlotResponse::isAvailable)
+                .map(AvailableSlotResponse::getOrarioInizio)
+                .collect(Collectors.toList());
+    }
+
+    private AppointmentsRepository.BookedSlot bookedSlot(LocalDate data, LocalTime orarioInizio, int durata) {
+        return new SpelAwareProxyProjectionFactory().createProjection(AppointmentsRepository.BookedSlot.class,
+                Map.of("data", data, "orarioInizio", orarioInizio, "durata", durata));
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentResponse;
+import com.example.demo.model.Appointments;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.Services;
+import com.example.demo.model.Users;
+import com.example.demo.model.WaitingList;
+import com.example.demo.repository.AppointmentArchiveRepository;
+import com.example.demo.repository.AppointmentsRepository;
+import com.example.demo.repository.WaitingListRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.archive.batch-size=2")
+@ActiveProfiles("test")
+public class ArchiveServiceTest {
+
+    @Autowired
+    private ArchiveService archiveService;
+
+    @Autowired
+    private AppointmentsService appointmentsService;
+
+    @Autowired
+    private AppointmentsRepository appointmentsRepository;
+
+    @Autowired
+    private AppointmentArchiveRepository appointmentArchiveRepository;
+
+    @Autowired
+    private WaitingListRepository waitingListRepository;
+
+    @Autowired
+    private BookingFixture bookingFixture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void archive_shouldMoveOldRowsInBatchesAndKeepTheCustomerHistory() {
+        BookingFixture.Parties parties = bookingFixture.create("Archive", 30);
+        Users user = parties.customer();
+        Barbers barber = parties.barber();
+        Services service = parties.service();
+
+        LocalDate old = LocalDate.now().minusYears(3);
+        List<Appointments> oldAppointments = List.of(
+                appointment(user, barber, service, old, Appointments.StatoAppuntamento.CONFERMATO),
+                appointment(user, barber, service, old.plusDays(1), Appointments.StatoAppuntamento.ANNULLATO),
+                appointment(user, barber, service, old.plusDays(2), Appointments.StatoAppuntamento.CONFERMATO));
+        Appointments recent = appointment(user, barber, service, LocalDate.now().plusDays(3), Appointments.StatoAppuntamento.CONFERMATO);
+
+        WaitingList waiting = new WaitingList();
+        waiting.setCustomer(user);
+        waiting.setBarber(barber);
+        waiting.setService(service);
+        waiting.setDataRichiesta(old);
+        waiting.setDataIscrizione(old.atStartOfDay());
+        waiting.setStato(WaitingList.StatoListaAttesa.SCADUTO);
+        waiting = waitingListRepository.save(waiting);
+
+        // Three old appointments with batches of two: both batches run in one pass
+        assertTrue(archiveService.archive() >= 3);
+
+        oldAppointments.forEach(appointment -> {
+            assertFalse(appointmentsRepository.existsById(appointment.getId()));
+            assertTrue(appointmentArchiveRepository.existsById(appointment.getId()));
+        });
+        assertTrue(appointmentsRepository.existsById(recent.getId()));
+        assertFalse(waitingListRepository.existsById(waiting.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM waiting_list_archive WHERE id = ?", Integer.class, waiting.getId()));
+
+        List<AppointmentResponse> history = appointmentsService.getCustomerHistory(user.getId());
+        assertEquals(List.of(oldAppointments.get(0).getId(), oldAppointments.get(1).getId(),
+                        oldAppointments.get(2).getId(), recent.getId()),
+                history.stream().map(AppointmentResponse::getId).toList());
+        assertEquals("Archive Barber", history.get(0).getBarber().getNome());
+        assertEquals(Appointments.StatoAppuntamento.ANNULLATO, history.get(1).getStato());
+    }
+
+    private Appointments appointment(Users user, Barbers barber, Services service, LocalDate data,
+                                     Appointments.StatoAppuntamento stato) {
+        Appointments appointment = new Appointments();
+        appointment.setCustomer(user);
+        appointment.setBarber(barber);
+        appointment.setService(service);
+        appointment.setData(data);
+        appointment.setOrarioInizio(LocalTime.of(10, 0));
+        appointment.setStato(stato);
+        return appointmentsRepository.save(appointment);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Barbers;
+import com.example.demo.model.Services;
+import com.example.demo.model.Users;
+import com.example.demo.repository.BarbersRepository;
+import com.example.demo.repository.ServicesRepository;
+import com.example.demo.repository.UsersRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the customer, barber and service a booking test needs, named after the test.
+ */
+@Component
+class BookingFixture {
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private BarbersRepository barbersRepository;
+
+    @Autowired
+    private ServicesRepository servicesRepository;
+
+    /**
+     * Saves "name@test.com", "Name Barber" and a "Name Service" of the given length.
+     *
+     * @param name    the name, e.g. "Archive"
+     * @param durata  the service length in minutes
+     * @return the saved parties
+     */
+    Parties create(String name, int durata) {
+        Barbers barber = new Barbers();
+        barber.setNome(name + " Barber");
+        Services service = new Services();
+        service.setNome(name + " Service");
+        service.setDurata(durata);
+        return new Parties(customer(name.toLowerCase()), barbersRepository.save(barber), servicesRepository.save(service));
+    }
+
+    /**
+     * Saves a customer with the e-mail "name@test.com".
+     *
+     * @param name the local part of the e-mail
+     * @return the saved customer
+     */
+    Users customer(String name) {
+        Users user = new Users();
+        user.setEmail(name + "@test.com");
+        user.setPassword("password");
+        return usersRepository.save(user);
+    }
+
+    record Parties(Users customer, Barbers barber, Services service) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentRequest;
+import com.example.demo.event.BookingEvent;
+import com.example.demo.event.BookingEventListener;
+import com.example.demo.model.Appointments;
+import com.example.demo.model.BookingOutbox;
+import com.example.demo.repository.BookingOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingOutboxRelayTest {
+
+    @Autowired
+    private AppointmentsService appointmentsService;
+
+    @Autowired
+    private BookingOutboxRelay bookingOutboxRelay;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private BookingFixture bookingFixture;
+
+    @Autowired
+    private RecordingListener recordingListener;
+
+    @Test
+    void bookingEvents_shouldBeRelayedAtLeastOnceAfterAFailure() {
+        BookingFixture.Parties parties = bookingFixture.create("Outbox", 30);
+
+        AppointmentRequest request = new AppointmentRequest();
+        request.setCustomerId(parties.customer().getId());
+        request.setBarberId(parties.barber().getId());
+        request.setServiceId(parties.service().getId());
+        request.setData(LocalDate.of(2030, 1, 9));
+        request.setOrarioInizio(LocalTime.of(10, 0));
+
+        recordingListener.failing.set(true);
+        Appointments appointment = appointmentsService.createAppointment(request);
+        bookingOutboxRelay.drain();
+        assertTrue(recordingListener.received(appointment.getId()).isEmpty());
+
+        recordingListener.failing.set(false);
+        bookingOutboxRelay.drain();
+        List<BookingEvent> received = recordingListener.received(appointment.getId());
+        assertEquals(1, received.size());
+        assertEquals(BookingOutbox.TipoEvento.PRENOTATO, received.get(0).tipo());
+        assertEquals(parties.barber().getId(), received.get(0).barberId());
+
+        BookingOutbox outbox = bookingOutboxRepository.findById(received.get(0).id()).orElseThrow();
+        assertNotNull(outbox.getDataPubblicazione());
+        assertTrue(outbox.getTentativi() >= 1);
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements BookingEventListener {
+
+        final AtomicBoolean failing = new AtomicBoolean();
+        private final List<BookingEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onBookingEvent(BookingEvent event) {
+            if (failing.get()) {
+                throw new IllegalStateException("listener down");
+            }
+            events.add(event);
+        }
+
+        List<BookingEvent> received(Long appointmentId) {
+            return events.stream().filter(event -> event.appointmentId().equals(appointmentId)).toList();
+        }
+    }
+}
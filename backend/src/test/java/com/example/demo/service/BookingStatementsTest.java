@@ -0,0 +1,152 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentRequest;
+import com.example.demo.dto.WaitingListRequest;
+import com.example.demo.model.Appointments;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.BusinessHours;
+import com.example.demo.model.Services;
+import com.example.demo.model.Shop;
+import com.example.demo.model.Users;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingStatementsTest {
+
+    @Autowired
+    private AppointmentsService appointmentsService;
+
+    @Autowired
+    private WaitingListService waitingListService;
+
+    @Autowired
+    private BookingFixture bookingFixture;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Users user;
+    private Barbers barber;
+    private Services service;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        BookingFixture.Parties parties = bookingFixture.create("Statements", 30);
+        user = parties.customer();
+        barber = parties.barber();
+        service = parties.service();
+        businessHoursService.ensureDefaultHours(Shop.DEFAULT_ID);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        startCold();
+    }
+
+    @Test
+    void createAppointment_shouldAttachCustomerWithoutLoadingIt() {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setCustomerId(user.getId());
+        request.setBarberId(barber.getId());
+        request.setServiceId(service.getId());
+        request.setData(LocalDate.of(2030, 1, 8));
+        request.setOrarioInizio(LocalTime.of(11, 0));
+
+        appointmentsService.createAppointment(request);
+
+        // Only the customer is attached by reference
+        assertEquals(0, statistics.getEntityStatistics(Users.class.getName()).getLoadCount());
+        // The barber is read once, by the locking select that serializes its bookings
+        assertEquals(1, statistics.getEntityStatistics(Barbers.class.getName()).getLoadCount());
+        // Barber lock, existence check, service, business hours, the overlap check, the insert and its outbox row
+        assertTrue(statistics.getPrepareStatementCount() <= 7, "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void addToWaitingList_shouldInsertWithOneExistenceQuery() {
+        WaitingListRequest request = new WaitingListRequest();
+        request.setCustomerId(user.getId());
+        request.setBarberId(barber.getId());
+        request.setServiceId(service.getId());
+        request.setDataRichiesta(LocalDate.of(2030, 1, 8));
+
+        waitingListService.addToWaitingList(request);
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cancelAppointment_shouldLoadServiceAndHoursOnceWhilePromotingTheWaitingList() {
+        LocalDate day = LocalDate.of(2030, 1, 15);
+        Appointments cancelled = appointmentsService.createAppointment(request(user, day, LocalTime.of(10, 0)));
+        Users waiting = bookingFixture.customer("statements-waiting");
+        WaitingListRequest waitingRequest = new WaitingListRequest();
+        waitingRequest.setCustomerId(waiting.getId());
+        waitingRequest.setBarberId(barber.getId());
+        waitingRequest.setServiceId(service.getId());
+        waitingRequest.setDataRichiesta(day);
+        waitingListService.addToWaitingList(waitingRequest);
+        startCold();
+
+        appointmentsService.cancelAppointment(cancelled.getId());
+
+        // The promotion books through createAppointment, which reuses the service and hours the cancellation
+        // read; its barber comes from the locking select and only the waiting customer is attached by reference
+        assertEquals(1, statistics.getEntityStatistics(Services.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getEntityStatistics(BusinessHours.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getEntityStatistics(Barbers.class.getName()).getLoadCount());
+        // Cancellation: appointment, update, outbox row. Promotion: queue head, barber lock, service,
+        // existence check, hours, overlap check, insert, outbox row, queue update, outbox row
+        assertTrue(statistics.getPrepareStatementCount() <= 13, "statements: " + statistics.getPrepareStatementCount());
+        assertEquals(1, appointmentsService.getAppointmentsByUser(waiting.getId()).size());
+    }
+
+    @Test
+    void getAvailableSlots_shouldReadServiceHoursAndTheDayOnce() {
+        LocalDate day = LocalDate.of(2030, 1, 22);
+        appointmentsService.createAppointment(request(user, day, LocalTime.of(10, 0)));
+        startCold();
+
+        appointmentsService.getAvailableSlots(barber.getId(), service.getId(), day);
+
+        assertEquals(1, statistics.getEntityStatistics(Services.class.getName()).getLoadCount());
+        assertEquals(1, statistics.getEntityStatistics(BusinessHours.class.getName()).getLoadCount());
+        // Hours, service and the barber's day, then every candidate is checked in memory
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    /**
+     * Empties the entity and query caches, so every read below would have to reach the database.
+     */
+    private void startCold() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    private AppointmentRequest request(Users customer, LocalDate data, LocalTime orarioInizio) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setCustomerId(customer.getId());
+        request.setBarberId(barber.getId());
+        request.setServiceId(service.getId());
+        request.setData(data);
+        request.setOrarioInizio(orarioInizio);
+        return request;
+    }
+}
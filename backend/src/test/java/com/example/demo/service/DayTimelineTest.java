@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BusinessHours;
+import com.example.demo.repository.AppointmentsRepository.BookedSlot;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DayTimelineTest {
+
+    @Test
+    void timeline_shouldOfferOnlyGapsLongEnoughForTheWholeBlock() {
+        BusinessHours businessHours = new BusinessHours();
+        businessHours.setAperto(true);
+        businessHours.setApertura(LocalTime.of(9, 0));
+        businessHours.setChiusura(LocalTime.of(12, 0));
+
+        // Free: 9:00-10:00, 10:30-11:40
+        DayTimeline timeline = DayTimeline.of(businessHours, List.of(
+                appointment(LocalTime.of(11, 40), 20),
+                appointment(LocalTime.of(10, 0), 30)));
+
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(10, 30), LocalTime.of(10, 45)),
+                timeline.starts(50, 9 * 60, 15));
+        assertTrue(timeline.fits(LocalTime.of(10, 30), 70));
+        assertFalse(timeline.fits(LocalTime.of(9, 30), 45));
+        assertFalse(timeline.fits(LocalTime.of(8, 30), 30));
+    }
+
+    @Test
+    void starts_shouldFollowTheGridIntoTheGapsAtBothEdges() {
+        BusinessHours businessHours = new BusinessHours();
+        businessHours.setAperto(true);
+        businessHours.setApertura(LocalTime.of(9, 0));
+        businessHours.setChiusura(LocalTime.of(12, 0));
+
+        // Free: 9:00-9:50, 10:30-11:00 (too short for 45 minutes), 11:10-12:00
+        DayTimeline timeline = DayTimeline.of(businessHours, List.of(
+                appointment(LocalTime.of(9, 50), 40),
+                appointment(LocalTime.of(11, 0), 10)));
+
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(11, 15)), timeline.starts(45, 9 * 60, 15));
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(9, 5), LocalTime.of(11, 10), LocalTime.of(11, 15)),
+                timeline.starts(45, 9 * 60, 5));
+        assertEquals(List.of(LocalTime.of(9, 0), LocalTime.of(11, 15)), timeline.starts(45, 9 * 60, 45));
+    }
+
+    private BookedSlot appointment(LocalTime orarioInizio, int durata) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookedSlot.class,
+                Map.of("orarioInizio", orarioInizio, "durata", durata));
+    }
+}
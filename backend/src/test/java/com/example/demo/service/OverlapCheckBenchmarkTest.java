@@ -0,0 +1,107 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Appointments;
+import com.example.demo.model.Barbers;
+import com.example.demo.model.Services;
+import com.example.demo.model.Users;
+import com.example.demo.repository.AppointmentsRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the DB-side overlap query with loading the barber-day and checking it in memory,
+ * on a day with 50 bookings. The timings are logged at DEBUG; only agreement and the statement
+ * count are asserted.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class OverlapCheckBenchmarkTest {
+
+    private static final int BOOKINGS = 50;
+    private static final int ROUNDS = 5;
+    private static final Logger logger = LoggerFactory.getLogger(OverlapCheckBenchmarkTest.class);
+
+    @Autowired
+    private AppointmentsRepository appointmentsRepository;
+
+    @Autowired
+    private BookingFixture bookingFixture;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void overlapQuery_shouldAgreeWithTheInMemoryCheck() {
+        BookingFixture.Parties parties = bookingFixture.create("Overlap", 15);
+        Users customer = parties.customer();
+        Barbers barber = parties.barber();
+        Services service = parties.service();
+
+        // 50 bookings of 15 minutes from 7:00, leaving every fifth slot free
+        LocalDate day = LocalDate.of(2030, 3, 4);
+        List<Appointments> bookings = new ArrayList<>();
+        for (int i = 0; bookings.size() < BOOKINGS; i++) {
+            if (i % 5 == 4) {
+                continue;
+            }
+            Appointments appointment = new Appointments();
+            appointment.setCustomer(customer);
+            appointment.setBarber(barber);
+            appointment.setService(service);
+            appointment.setData(day);
+            appointment.setOrarioInizio(LocalTime.of(7, 0).plusMinutes(15L * i));
+            appointment.setStato(Appointments.StatoAppuntamento.CONFERMATO);
+            bookings.add(appointment);
+        }
+        appointmentsRepository.saveAll(bookings);
+
+        List<LocalTime> probes = new ArrayList<>();
+        for (LocalTime time = LocalTime.of(6, 0); time.isBefore(LocalTime.of(21, 0)); time = time.plusMinutes(5)) {
+            probes.add(time);
+        }
+        Long barberId = barber.getId();
+
+        long inMemoryNanos = 0;
+        long overlapNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (LocalTime probe : probes) {
+                long started = System.nanoTime();
+                boolean free = DayTimeline.of(null, appointmentsRepository
+                        .findBookedSlots(barberId, day, Appointments.StatoAppuntamento.CONFERMATO)).fits(probe, 30);
+                inMemoryNanos += System.nanoTime() - started;
+
+                started = System.nanoTime();
+                boolean overlaps = appointmentsRepository.existsOverlap(barberId, day,
+                        Appointments.StatoAppuntamento.CONFERMATO, probe.plusMinutes(30), DayTimeline.minutes(probe), null);
+                overlapNanos += System.nanoTime() - started;
+
+                assertEquals(free, !overlaps, "probe " + probe);
+            }
+        }
+        logger.debug("Conflict check, {} bookings, {} checks: in-memory {} us/check, overlap query {} us/check",
+                BOOKINGS, ROUNDS * probes.size(),
+                inMemoryNanos / 1000 / (ROUNDS * probes.size()), overlapNanos / 1000 / (ROUNDS * probes.size()));
+
+        // The overlap query is one statement and materializes no rows
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        appointmentsRepository.existsOverlap(barberId, day, Appointments.StatoAppuntamento.CONFERMATO,
+                LocalTime.of(8, 30), DayTimeline.minutes(LocalTime.of(8, 0)), bookings.get(4).getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,10 @@
+-- Tables the application does not create itself; see database/migration_cache_invalidations.sql
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  origin VARCHAR(64) NOT NULL,
+  catalog VARCHAR(32),
+  appointment_id BIGINT,
+  barber_id BIGINT,
+  data DATE,
+  created_at TIMESTAMP NOT NULL
+);
@@ -82,10 +82,8 @@ export class AdminDashboardComponent implements OnInit {
       return;
     }
 
-    this.loadServices();
-    this.loadBarbers();
-    this.loadBusinessHours();
     this.initializeAgenda();
+    this.loadDashboard();
   }
 
   setSection(section: AdminSection): void {
@@ -95,10 +93,26 @@ export class AdminDashboardComponent implements OnInit {
   private initializeAgenda(): void {
     const today = new Date();
     this.selectedDate = this.formatDateForInput(today);
-    this.loadAppointmentsForDate();
     this.updateCalendar(today);
   }
 
+  private loadDashboard(): void {
+    this.apiService.getAdminDashboard(this.selectedDate).subscribe({
+      next: (dashboard) => {
+        this.services = dashboard.services;
+        this.barbers = dashboard.barbers;
+        this.setBusinessHours(dashboard.businessHours);
+        this.setAppointments(dashboard.appointments);
+      },
+      error: (error) => {
+        if (this.handleUnauthorized(error)) {
+          return;
+        }
+        console.error('Errore durante il caricamento della dashboard:', error);
+      },
+    });
+  }
+
   loadServices(): void {
     this.apiService.getAllServices().subscribe({
       next: (data) => {
@@ -175,7 +189,9 @@ export class AdminDashboardComponent implements OnInit {
     this.editingBarberServiceIds = new Set<number>();
     this.servicesDropdownOpen = true;
 
-    if (barber.id) {
+    if (barber.serviceIds) {
+      this.editingBarberServiceIds = new Set(barber.serviceIds);
+    } else if (barber.id) {
       this.apiService.getServicesForBarber(barber.id).subscribe({
         next: (services) => {
           this.editingBarberServiceIds = new Set(services.map((s) => s.id!));
@@ -267,13 +283,7 @@ export class AdminDashboardComponent implements OnInit {
     }
 
     this.apiService.getAppointmentsByDate(this.selectedDate).subscribe({
-      next: (data) => {
-        this.appointments = [...data].sort((a, b) => {
-          const timeA = this.formatTimeValue(a.orarioInizio);
-          const timeB = this.formatTimeValue(b.orarioInizio);
-          return timeA.localeCompare(timeB);
-        });
-      },
+      next: (data) => this.setAppointments(data),
       error: (error) => {
         if (this.handleUnauthorized(error)) {
           return;
@@ -283,6 +293,14 @@ export class AdminDashboardComponent implements OnInit {
     });
   }
 
+  private setAppointments(data: Appointment[]): void {
+    this.appointments = [...data].sort((a, b) => {
+      const timeA = this.formatTimeValue(a.orarioInizio);
+      const timeB = this.formatTimeValue(b.orarioInizio);
+      return timeA.localeCompare(timeB);
+    });
+  }
+
   onAgendaDateChange(): void {
     this.loadAppointmentsForDate();
     this.updateCalendar();
@@ -426,15 +444,7 @@ export class AdminDashboardComponent implements OnInit {
 
   loadBusinessHours(): void {
     this.apiService.getBusinessHours().subscribe({
-      next: (data) => {
-        this.businessHours = data
-          .sort((a, b) => a.giorno - b.giorno)
-          .map((hour) => ({
-            ...hour,
-            apertura: hour.apertura ? hour.apertura.substring(0, 5) : null,
-            chiusura: hour.chiusura ? hour.chiusura.substring(0, 5) : null,
-          }));
-      },
+      next: (data) => this.setBusinessHours(data),
       error: (error) => {
         if (this.handleUnauthorized(error)) {
           return;
@@ -444,6 +454,16 @@ export class AdminDashboardComponent implements OnInit {
     });
   }
 
+  private setBusinessHours(data: BusinessHours[]): void {
+    this.businessHours = data
+      .sort((a, b) => a.giorno - b.giorno)
+      .map((hour) => ({
+        ...hour,
+        apertura: hour.apertura ? hour.apertura.substring(0, 5) : null,
+        chiusura: hour.chiusura ? hour.chiusura.substring(0, 5) : null,
+      }));
+  }
+
   toggleDayOpen(hours: BusinessHours): void {
     hours.aperto = !hours.aperto;
     if (!hours.aperto) {
@@ -0,0 +1,12 @@
+import { Appointment } from './appointment.model';
+import { Barber } from './barber.model';
+import { BusinessHours } from './business-hours.model';
+import { Service } from './service.model';
+
+export interface AdminDashboard {
+  date: string;
+  barbers: Barber[];
+  services: Service[];
+  businessHours: BusinessHours[];
+  appointments: Appointment[];
+}
@@ -10,4 +10,5 @@ export interface Appointment {
   data: string | Date;
   orarioInizio: string;
   stato: 'CONFERMATO' | 'PENDING' | 'ANNULLATO';
+  version?: number;
 }
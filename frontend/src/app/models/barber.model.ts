@@ -5,4 +5,5 @@ export interface Barber {
   esperienza: string;
   specialita: string;
   isActive: boolean;
+  serviceIds?: number[];
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+export interface NextAvailableSlot {
+  barber: { id: number; nome: string; cognome?: string };
+  data: string;
+  orarioInizio: string;
+  orarioFine: string;
+}
@@ -1,6 +1,6 @@
 import { Injectable, inject } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpErrorResponse, HttpHeaders } from '@angular/common/http';
+import { MonoTypeOperatorFunction, Observable, retry, throwError, timer } from 'rxjs';
 import { Service } from '../models/service.model';
 import { Barber } from '../models/barber.model';
 import { Appointment } from '../models/appointment.model';
@@ -8,6 +8,8 @@ import { Availability } from '../models/availability.model';
 import { WaitingList } from '../models/waiting-list.model';
 import { BusinessHours } from '../models/business-hours.model';
 import { AvailableSlot } from '../models/available-slot.model';
+import { NextAvailableSlot } from '../models/next-available-slot.model';
+import { AdminDashboard } from '../models/admin-dashboard.model';
 
 @Injectable({
   providedIn: 'root',
@@ -30,6 +32,27 @@ export class ApiService {
     };
   }
 
+  // The same key is sent on every retry, so the backend replays the first outcome instead of booking twice
+  private getIdempotentOptions(): { headers: HttpHeaders } {
+    const headers = this.getAuthOptions().headers ?? new HttpHeaders();
+    return { headers: headers.set('Idempotency-Key', crypto.randomUUID()) };
+  }
+
+  // Only failures that can pass on their own are retried (network errors, 5xx, 429), after Retry-After when sent
+  private retryTransient<T>(): MonoTypeOperatorFunction<T> {
+    return retry<T>({
+      count: 2,
+      delay: (error: unknown) => {
+        if (!(error instanceof HttpErrorResponse)
+          || !(error.status === 0 || error.status === 429 || error.status >= 500)) {
+          return throwError(() => error);
+        }
+        const retryAfter = Number(error.headers.get('Retry-After'));
+        return timer(retryAfter > 0 ? retryAfter * 1000 : 1000);
+      },
+    });
+  }
+
   // Service management
   getAllServices(): Observable<Service[]> {
     return this.http.get<Service[]>(`${this.apiUrl}/services`);
@@ -85,6 +108,12 @@ export class ApiService {
     return this.http.get<Availability[]>(`${this.apiUrl}/barbers/${barberId}/availability`);
   }
 
+  getNextAvailableSlots(serviceId: number, limit = 5): Observable<NextAvailableSlot[]> {
+    return this.http.get<NextAvailableSlot[]>(`${this.apiUrl}/appointments/next-available`, {
+      params: { serviceId, limit },
+    });
+  }
+
   getAvailableSlots(barberId: number, serviceId: number, date: string): Observable<AvailableSlot[]> {
     return this.http.get<AvailableSlot[]>(
       `${this.apiUrl}/appointments/available-slots`,
@@ -99,7 +128,9 @@ export class ApiService {
   }
 
   createAppointment(appointment: Partial<Appointment>): Observable<Appointment> {
-    return this.http.post<Appointment>(`${this.apiUrl}/appointments`, appointment, this.getAuthOptions());
+    return this.http
+      .post<Appointment>(`${this.apiUrl}/appointments`, appointment, this.getIdempotentOptions())
+      .pipe(this.retryTransient());
   }
 
   getAppointmentsByUserId(userId: number): Observable<Appointment[]> {
@@ -111,7 +142,9 @@ export class ApiService {
   }
 
   cancelAppointment(appointmentId: number): Observable<void> {
-    return this.http.delete<void>(`${this.apiUrl}/appointments/${appointmentId}`, this.getAuthOptions());
+    return this.http
+      .delete<void>(`${this.apiUrl}/appointments/${appointmentId}`, this.getIdempotentOptions())
+      .pipe(this.retryTransient());
   }
 
   removeFromWaitingList(waitingId: number): Observable<void> {
@@ -125,6 +158,13 @@ export class ApiService {
     });
   }
 
+  getAdminDashboard(date: string): Observable<AdminDashboard> {
+    return this.http.get<AdminDashboard>(`${this.apiUrl}/admin/dashboard`, {
+      params: { date },
+      ...this.getAuthOptions(),
+    });
+  }
+
   getBusinessHours(): Observable<BusinessHours[]> {
     return this.http.get<BusinessHours[]>(`${this.apiUrl}/business-hours`, this.getAuthOptions());
   }